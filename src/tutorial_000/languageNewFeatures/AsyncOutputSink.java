@@ -0,0 +1,338 @@
+package tutorial_000.languageNewFeatures;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Formatter;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous replacement of System.out.printf / println for code writing from many threads.
+ *
+ * PrintStream locks each call, and formats and writes (a system call per line for System.out) while holding the lock :
+ * concurrent writers queue on it. Here a writing thread only formats its text into its own StringBuilder, then hands
+ * the finished text over to a lock-free multi-producer single-consumer queue. A single writer thread drains the queue,
+ * encodes the texts into a buffer of 64 KB, and writes the buffer to a FileChannel (a file, or the standard output)
+ * each time it is full or the queue is empty : under load, many lines are written per system call.
+ *
+ *     try (AsyncOutputSink out = AsyncOutputSink.toStdout()) {
+ *         out.printf("Thread %s - Task %d canceled.%n", Thread.currentThread().getName(), number);
+ *         out.line().append("Task ").padLeft(number, 6).append(" : ").append(result).println();
+ *     }
+ *
+ * line() returns a Line, built like a StringBuilder (padding uses StringBuilder.repeat of java 21) and sent by
+ * println() or print(). A platform thread reuses its own Line (and its Formatter, for printf) ; a virtual thread gets a
+ * new one per call, as caching objects in the ThreadLocals of millions of short-lived virtual threads costs more than
+ * it saves.
+ *
+ * Texts of a thread are written in order, but the texts of different threads are interleaved in the order they were
+ * queued, and not ordered with what is written directly to System.out. flush() waits until everything queued before
+ * it is written, and close() writes everything queued before returning : texts queued concurrently with close() may be
+ * lost. AsyncOutputSinkHarness compares it with printf to a PrintStream.
+ */
+public final class AsyncOutputSink implements AutoCloseable {
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    /**
+     * Node of the queue : a text to write, a flush marker, or the (already consumed) head.
+     */
+    private static final class Node {
+        final String text;
+        final CountDownLatch flushed;
+        volatile Node next;
+
+        Node(String text, CountDownLatch flushed) {
+            this.text = text;
+            this.flushed = flushed;
+        }
+    }
+
+    private final FileChannel channel;
+    private final boolean closeChannel;
+    private final ThreadLocal<Line> platformThreadLines = ThreadLocal.withInitial(Line::new);
+    private final Thread writer;
+
+    // Vyukov's intrusive MPSC queue : a producer swaps tail for its node, then links the previous tail to it. head is
+    // only used by the writer thread, and the queue is empty when tail is head.
+    private final AtomicReference<Node> tail;
+    private Node head;
+
+    private volatile boolean writerParked;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    private AsyncOutputSink(FileChannel channel, boolean closeChannel) {
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+        this.head = new Node(null, null);
+        this.tail = new AtomicReference<>(head);
+        this.writer = Thread.ofPlatform().name("async-output-sink").daemon().start(this::drain);
+    }
+
+    /**
+     * Sink to the standard output of the process (which close() does not close).
+     */
+    public static AsyncOutputSink toStdout() {
+        return new AsyncOutputSink(new FileOutputStream(FileDescriptor.out).getChannel(), false);
+    }
+
+    /**
+     * Sink to file, created or truncated.
+     */
+    public static AsyncOutputSink toFile(Path file) throws IOException {
+        return new AsyncOutputSink(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING), true);
+    }
+
+    /**
+     * Line of the current thread, to be sent with println() or print() before the next call to line().
+     */
+    public Line line() {
+        return Thread.currentThread().isVirtual() ? new Line() : platformThreadLines.get();
+    }
+
+    public void println(CharSequence text) {
+        line().append(text).println();
+    }
+
+    /**
+     * Same as PrintStream.printf : no line separator is added.
+     */
+    public void printf(String format, Object... args) {
+        line().format(format, args).print();
+    }
+
+    /**
+     * Waits until every text queued before this call is written to the channel. Throws an IllegalStateException if the
+     * sink is closed before the flush is reached.
+     */
+    public void flush() throws InterruptedException, IOException {
+        CountDownLatch flushed = new CountDownLatch(1);
+        enqueue(new Node(null, flushed));
+        if (closed) {
+            // close() ran concurrently : the writer may have stopped before the flush marker was queued.
+            writer.join();
+            if (flushed.getCount() > 0) {
+                throw new IllegalStateException("Sink closed");
+            }
+        } else {
+            // The writer reads tail after closed before stopping, so it will see the flush marker.
+            flushed.await();
+        }
+        throwFailure();
+    }
+
+    private void enqueue(Node node) {
+        if (closed) {
+            throw new IllegalStateException("Sink closed");
+        }
+        Node previous = tail.getAndSet(node);
+        previous.next = node;
+        // The writer sets writerParked before checking the queue one last time : it either sees node or is unparked.
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void drain() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        while (true) {
+            Node next = head.next;
+            if (next == null) {
+                write(buffer);
+                if (tail.get() != head) {
+                    // A producer has swapped tail, but not linked its node yet.
+                    Thread.onSpinWait();
+                    continue;
+                }
+                if (closed) {
+                    // tail is read again after closed : a node queued before close() set it is still written.
+                    if (tail.get() == head) {
+                        return;
+                    }
+                    continue;
+                }
+                writerParked = true;
+                if (tail.get() == head && !closed) {
+                    LockSupport.park(this);
+                }
+                writerParked = false;
+                continue;
+            }
+            head = next;
+            if (next.text != null) {
+                encode(next.text, buffer, encoder);
+            }
+            if (next.flushed != null) {
+                write(buffer);
+                next.flushed.countDown();
+            }
+        }
+    }
+
+    private void encode(String text, ByteBuffer buffer, CharsetEncoder encoder) {
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        while (encoder.encode(chars, buffer, true) == CoderResult.OVERFLOW) {
+            write(buffer);
+        }
+        while (encoder.flush(buffer) == CoderResult.OVERFLOW) {
+            write(buffer);
+        }
+    }
+
+    private void write(ByteBuffer buffer) {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        try {
+            // After a failure, texts are dropped : flush() and close() report it.
+            while (failure == null && buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+        buffer.clear();
+    }
+
+    private void throwFailure() throws IOException {
+        IOException e = failure;
+        if (e != null) {
+            throw new IOException("Write failed", e);
+        }
+    }
+
+    /**
+     * Writes everything queued, stops the writer thread, and closes the file (not the standard output).
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing", e);
+        } finally {
+            if (closeChannel) {
+                channel.close();
+            }
+        }
+        throwFailure();
+    }
+
+    /**
+     * Text being built by a thread : its methods append to a StringBuilder, and println() or print() queue it.
+     */
+    public final class Line {
+        private final StringBuilder builder = new StringBuilder(128);
+        private Formatter formatter;
+
+        private Line() {
+        }
+
+        public Line append(CharSequence text) {
+            builder.append(text);
+            return this;
+        }
+
+        public Line append(char c) {
+            builder.append(c);
+            return this;
+        }
+
+        public Line append(long value) {
+            builder.append(value);
+            return this;
+        }
+
+        public Line append(Object value) {
+            builder.append(value);
+            return this;
+        }
+
+        /**
+         * Appends text, preceded by as many spaces as needed to take width chars.
+         */
+        public Line padLeft(CharSequence text, int width) {
+            builder.repeat(' ', Math.max(0, width - text.length()));
+            builder.append(text);
+            return this;
+        }
+
+        /**
+         * Appends value, preceded by as many spaces as needed to take width chars (as %<width>d of printf).
+         */
+        public Line padLeft(long value, int width) {
+            builder.repeat(' ', Math.max(0, width - length(value)));
+            builder.append(value);
+            return this;
+        }
+
+        /**
+         * Appends text, followed by as many spaces as needed to take width chars.
+         */
+        public Line padRight(CharSequence text, int width) {
+            builder.append(text);
+            builder.repeat(' ', Math.max(0, width - text.length()));
+            return this;
+        }
+
+        public Line format(String format, Object... args) {
+            if (formatter == null) {
+                formatter = new Formatter(builder);
+            }
+            formatter.format(format, args);
+            return this;
+        }
+
+        public void println() {
+            builder.append(System.lineSeparator());
+            print();
+        }
+
+        /**
+         * Queues the text built so far, and starts a new one.
+         */
+        public void print() {
+            String text = builder.toString();
+            builder.setLength(0);
+            enqueue(new Node(text, null));
+        }
+    }
+
+    /**
+     * Number of chars of Long.toString(value).
+     */
+    static int length(long value) {
+        if (value == Long.MIN_VALUE) {
+            return 20;
+        }
+        int length = value < 0 ? 2 : 1;
+        for (long rest = Math.abs(value); rest >= 10; rest /= 10) {
+            length++;
+        }
+        return length;
+    }
+}
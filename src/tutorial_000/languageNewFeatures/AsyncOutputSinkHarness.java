@@ -0,0 +1,116 @@
+package tutorial_000.languageNewFeatures;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Compares the throughput (lines/s) of AsyncOutputSink with printf to a PrintStream, for 1 to 100 000 virtual threads
+ * writing a total of lines lines ("Thread <writer> - Task <number> canceled.", as Task does) :
+ * - PRINTF : PrintStream.printf to a PrintStream built as System.out is (128 bytes buffer, flushed on each line).
+ * - SINK_PRINTF : AsyncOutputSink.printf, with the same format.
+ * - SINK_LINE : AsyncOutputSink.line(), padding the numbers with StringBuilder.repeat instead of a format.
+ * Lines are written to a file rather than the console, whose speed would be measured instead. Each time includes
+ * closing the output, i.e. writing the last lines, and each file is checked to hold every line.
+ *
+ * On a single core, for 1 000 000 lines : PRINTF writes 30 000 to 42 000 lines/s whatever the number of writers (a
+ * system call per line, under the lock), SINK_PRINTF 420 000 to 590 000 (Formatter now being the cost) and SINK_LINE
+ * 1.6 to 2.3 million, still with 100 000 writers. Usage :
+ *   java -cp target/classes tutorial_000.languageNewFeatures.AsyncOutputSinkHarness [lines] [file]
+ */
+public class AsyncOutputSinkHarness {
+
+    private static final int[] WRITERS = { 1, 10, 100, 1_000, 10_000, 100_000 };
+    private static final String FORMAT = "Thread %6d - Task %8d canceled.%n";
+    private static final int RUNS = 3;
+
+    public enum Style { PRINTF, SINK_PRINTF, SINK_LINE }
+
+    @FunctionalInterface
+    private interface LineWriter {
+        void write(int writer, int task);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path file = args.length > 1 ? Path.of(args[1]) : Files.createTempFile("output", ".log");
+        boolean temporary = args.length <= 1;
+        try {
+            System.out.printf("%d lines to %s, %d cores, best of %d runs.%n", lines, file, Runtime.getRuntime().availableProcessors(), RUNS);
+            System.out.printf("%8s | %14s | %14s | %14s%n", "writers", Style.PRINTF, Style.SINK_PRINTF, Style.SINK_LINE);
+            System.out.println("-".repeat(60));
+            for (int writers : WRITERS) {
+                StringBuilder row = new StringBuilder();
+                row.repeat(' ', 8 - AsyncOutputSink.length(writers)).append(writers);
+                for (Style style : Style.values()) {
+                    double best = 0;
+                    for (int run = 0; run < RUNS; run++) {
+                        best = Math.max(best, measure(style, file, writers, lines));
+                    }
+                    row.append(" | ").append(String.format("%14.0f", best));
+                }
+                System.out.println(row);
+            }
+        } finally {
+            if (temporary) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Lines per second written by writers threads with the given style.
+     */
+    private static double measure(Style style, Path file, int writers, int lines) throws Exception {
+        long start = System.nanoTime();
+        switch (style) {
+            case PRINTF -> {
+                try (PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(file.toFile()), 128), true)) {
+                    run(writers, lines, (writer, task) -> out.printf(FORMAT, writer, task));
+                }
+            }
+            case SINK_PRINTF -> {
+                try (AsyncOutputSink out = AsyncOutputSink.toFile(file)) {
+                    run(writers, lines, (writer, task) -> out.printf(FORMAT, writer, task));
+                }
+            }
+            case SINK_LINE -> {
+                try (AsyncOutputSink out = AsyncOutputSink.toFile(file)) {
+                    run(writers, lines, (writer, task) -> out.line()
+                            .append("Thread ").padLeft(writer, 6).append(" - Task ").padLeft(task, 8).append(" canceled.").println());
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long expectedBytes = (long) lines * String.format(FORMAT, 0, 0).length();
+        if (Files.size(file) != expectedBytes) {
+            throw new IllegalStateException(style + " wrote " + Files.size(file) + " bytes instead of " + expectedBytes);
+        }
+        return lines * 1_000_000_000.0 / elapsed;
+    }
+
+    /**
+     * Runs writers virtual threads, writing lines lines in total, and waits for them.
+     */
+    private static void run(int writers, int lines, LineWriter lineWriter) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Runnable> tasks = new ArrayList<>(writers);
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                tasks.add(() -> {
+                    for (int task = writer; task < lines; task += writers) {
+                        lineWriter.write(writer, task);
+                    }
+                });
+            }
+            tasks.forEach(executor::execute);
+        }
+    }
+}
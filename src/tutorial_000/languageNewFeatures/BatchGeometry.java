@@ -0,0 +1,160 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.List;
+import java.util.Objects;
+
+import tutorial_000.languageNewFeatures._003_RecordPatterns.GPS;
+import tutorial_000.languageNewFeatures._003_RecordPatterns.Position2D;
+import tutorial_000.languageNewFeatures._003_RecordPatterns.Position3D;
+
+/**
+ * Bulk distance and displacement calculations over GPS pairs of _003_RecordPatterns, stored as primitive coordinate
+ * columns (Pairs2D, Pairs3D).
+ *
+ * Each calculation is done by VectorGeometry (incubating Vector API, SIMD) when :
+ * - the jdk.incubator.vector module is resolved, i.e. the JVM was started with "--add-modules jdk.incubator.vector" ;
+ * - and there are at least VECTOR_THRESHOLD pairs, as for smaller batches the scalar loop is as fast.
+ * Otherwise it falls back on ScalarGeometry. GeometryBenchmark compares both implementations.
+ *
+ * VectorGeometry uses fused multiply-add, and sums the distances in another order than the scalar loop : results may
+ * differ in the last bits depending on the implementation used.
+ */
+public final class BatchGeometry {
+
+    /**
+     * Number of pairs from which VectorGeometry is used. Below, most of the pairs are in the scalar tail of the vector
+     * loop (with 512 bits vectors, one step handles 8 doubles), so it cannot gain anything.
+     */
+    public static final int VECTOR_THRESHOLD = 16;
+
+    private static final boolean VECTOR_AVAILABLE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    /**
+     * Columns of the GPS<Position2D> pairs : from i is (fromX[i], fromY[i]) and to i is (toX[i], toY[i]).
+     */
+    public record Pairs2D(int[] fromX, int[] fromY, int[] toX, int[] toY) {
+        public Pairs2D {
+            int length = fromX.length;
+            if (fromY.length != length || toX.length != length || toY.length != length) {
+                throw new IllegalArgumentException("Columns of different lengths");
+            }
+        }
+
+        public static Pairs2D of(List<? extends GPS<Position2D>> pairs) {
+            Pairs2D columns = new Pairs2D(new int[pairs.size()], new int[pairs.size()], new int[pairs.size()], new int[pairs.size()]);
+            int i = 0;
+            for (GPS<Position2D> pair : pairs) {
+                if (!(pair instanceof GPS<Position2D>(Position2D(int x1, int y1), Position2D(int x2, int y2)))) {
+                    throw new NullPointerException("Incomplete GPS : " + pair);
+                }
+                columns.fromX[i] = x1;
+                columns.fromY[i] = y1;
+                columns.toX[i] = x2;
+                columns.toY[i] = y2;
+                i++;
+            }
+            return columns;
+        }
+
+        public int length() {
+            return fromX.length;
+        }
+    }
+
+    /**
+     * Columns of the GPS<Position3D> pairs.
+     */
+    public record Pairs3D(int[] fromX, int[] fromY, int[] fromZ, int[] toX, int[] toY, int[] toZ) {
+        public Pairs3D {
+            int length = fromX.length;
+            if (fromY.length != length || fromZ.length != length || toX.length != length || toY.length != length || toZ.length != length) {
+                throw new IllegalArgumentException("Columns of different lengths");
+            }
+        }
+
+        public static Pairs3D of(List<? extends GPS<Position3D>> pairs) {
+            int size = pairs.size();
+            Pairs3D columns = new Pairs3D(new int[size], new int[size], new int[size], new int[size], new int[size], new int[size]);
+            int i = 0;
+            for (GPS<Position3D> pair : pairs) {
+                if (!(pair instanceof GPS<Position3D>(Position3D(int x1, int y1, int z1), Position3D(int x2, int y2, int z2)))) {
+                    throw new NullPointerException("Incomplete GPS : " + pair);
+                }
+                columns.fromX[i] = x1;
+                columns.fromY[i] = y1;
+                columns.fromZ[i] = z1;
+                columns.toX[i] = x2;
+                columns.toY[i] = y2;
+                columns.toZ[i] = z2;
+                i++;
+            }
+            return columns;
+        }
+
+        public int length() {
+            return fromX.length;
+        }
+    }
+
+    private BatchGeometry() {
+    }
+
+    public static boolean vectorAvailable() {
+        return VECTOR_AVAILABLE;
+    }
+
+    private static boolean useVector(int length) {
+        return VECTOR_AVAILABLE && length >= VECTOR_THRESHOLD;
+    }
+
+    /**
+     * Writes the euclidean distance of each pair into distances, which must be at least as long as pairs.
+     */
+    public static void distances(Pairs2D pairs, double[] distances) {
+        Objects.checkFromIndexSize(0, pairs.length(), distances.length);
+        if (useVector(pairs.length())) {
+            VectorGeometry.distances(pairs, distances);
+        } else {
+            ScalarGeometry.distances(pairs, distances);
+        }
+    }
+
+    public static void distances(Pairs3D pairs, double[] distances) {
+        Objects.checkFromIndexSize(0, pairs.length(), distances.length);
+        if (useVector(pairs.length())) {
+            VectorGeometry.distances(pairs, distances);
+        } else {
+            ScalarGeometry.distances(pairs, distances);
+        }
+    }
+
+    public static double totalDistance(Pairs2D pairs) {
+        return useVector(pairs.length()) ? VectorGeometry.totalDistance(pairs) : ScalarGeometry.totalDistance(pairs);
+    }
+
+    public static double totalDistance(Pairs3D pairs) {
+        return useVector(pairs.length()) ? VectorGeometry.totalDistance(pairs) : ScalarGeometry.totalDistance(pairs);
+    }
+
+    /**
+     * Writes the displacement (to - from) of each pair into dx and dy. As for any int arithmetic, it overflows when
+     * from and to are more than Integer.MAX_VALUE apart.
+     */
+    public static void displacements(Pairs2D pairs, int[] dx, int[] dy) {
+        Objects.checkFromIndexSize(0, pairs.length(), Math.min(dx.length, dy.length));
+        if (useVector(pairs.length())) {
+            VectorGeometry.displacements(pairs, dx, dy);
+        } else {
+            ScalarGeometry.displacements(pairs, dx, dy);
+        }
+    }
+
+    public static void displacements(Pairs3D pairs, int[] dx, int[] dy, int[] dz) {
+        Objects.checkFromIndexSize(0, pairs.length(), Math.min(dx.length, Math.min(dy.length, dz.length)));
+        if (useVector(pairs.length())) {
+            VectorGeometry.displacements(pairs, dx, dy, dz);
+        } else {
+            ScalarGeometry.displacements(pairs, dx, dy, dz);
+        }
+    }
+}
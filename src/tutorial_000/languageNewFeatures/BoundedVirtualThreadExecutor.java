@@ -0,0 +1,141 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drop-in replacement for Executors.newVirtualThreadPerTaskExecutor() that caps the number of tasks running at the
+ * same time.
+ *
+ * Each task still gets its own virtual thread, but that thread first waits for a permit of a fair Semaphore. Waiting
+ * is cheap for a virtual thread, so the caller is never blocked while downstream resources (a connection pool of 200
+ * connections for instance) never see more than maxConcurrency concurrent calls. Admission queue depth and wait time
+ * are recorded so that the cap may be tuned.
+ */
+public final class BoundedVirtualThreadExecutor extends AbstractExecutorService {
+
+    private final ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+    private final int maxConcurrency;
+    private final Semaphore permits;
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final LongAccumulator maxQueueDepth = new LongAccumulator(Long::max, 0);
+    private final LongAdder admittedTasks = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0);
+
+    public BoundedVirtualThreadExecutor(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive : " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Objects.requireNonNull(command);
+        virtualThreads.execute(() -> runAdmitted(command));
+    }
+
+    private void runAdmitted(Runnable command) {
+        long waitStart = System.nanoTime();
+        maxQueueDepth.accumulate(queueDepth.incrementAndGet());
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            // Interrupted by shutdownNow() before being admitted : the task never runs.
+            if (command instanceof Future<?> future) {
+                future.cancel(false);
+            }
+            return;
+        } finally {
+            queueDepth.decrementAndGet();
+        }
+
+        long waitNanos = System.nanoTime() - waitStart;
+        admittedTasks.increment();
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulate(waitNanos);
+
+        try {
+            command.run();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Number of tasks currently running (holding a permit).
+     */
+    public int inFlight() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * Number of tasks currently waiting for a permit.
+     */
+    public int queueDepth() {
+        return queueDepth.get();
+    }
+
+    public long maxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public long admittedTasks() {
+        return admittedTasks.sum();
+    }
+
+    public double averageWaitMillis() {
+        long admitted = admittedTasks.sum();
+        return admitted == 0 ? 0 : totalWaitNanos.sum() / 1_000_000.0 / admitted;
+    }
+
+    public double maxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    public String metrics() {
+        return String.format("maxConcurrency = %d; inFlight = %d; queueDepth = %d (max %d); admitted = %d; wait avg = %.1f ms, max = %.1f ms",
+                maxConcurrency, inFlight(), queueDepth(), maxQueueDepth(), admittedTasks(), averageWaitMillis(), maxWaitMillis());
+    }
+
+    @Override
+    public void shutdown() {
+        virtualThreads.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return virtualThreads.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return virtualThreads.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return virtualThreads.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return virtualThreads.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,207 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Bulk versions of Math.clamp over int, long, float and double arrays, in place (clamp(values, min, max)) or into a
+ * destination array (clamp(src, dst, min, max)). Results are the ones of Math.clamp for each element, including NaN
+ * and -0.0 handling, and min and max are checked the same way (IllegalArgumentException if min > max, or if one of them
+ * is NaN).
+ *
+ * As BatchGeometry, each call is done by VectorClamp (incubating Vector API) when the jdk.incubator.vector module is
+ * resolved and there are at least VECTOR_THRESHOLD elements, and by ScalarClamp (Math.clamp loop) otherwise.
+ *
+ * parallelClamp splits very large arrays into ranges of PARALLEL_CHUNK elements, clamped by the common ForkJoinPool as
+ * above. Clamping is memory bound : beyond a few cores, parallelism gains little more than the memory bandwidth allows.
+ */
+public final class BulkClamp {
+
+    /**
+     * Number of elements from which VectorClamp is used : below, most elements are in the scalar tail of its loop.
+     */
+    public static final int VECTOR_THRESHOLD = 16;
+
+    /**
+     * Number of elements below which a range is not split anymore by parallelClamp.
+     */
+    public static final int PARALLEL_CHUNK = 1 << 16;
+
+    private static final boolean VECTOR_AVAILABLE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private BulkClamp() {
+    }
+
+    public static boolean vectorAvailable() {
+        return VECTOR_AVAILABLE;
+    }
+
+    private static boolean useVector(int length) {
+        return VECTOR_AVAILABLE && length >= VECTOR_THRESHOLD;
+    }
+
+    private static void checkLengths(int srcLength, int dstLength) {
+        if (dstLength < srcLength) {
+            throw new IllegalArgumentException("Destination shorter than source : " + dstLength + " < " + srcLength);
+        }
+    }
+
+    /**
+     * Clamps [from, to) of an array : the leaf of parallelClamp.
+     */
+    @FunctionalInterface
+    private interface RangeClamp {
+        void clamp(int from, int to);
+    }
+
+    @SuppressWarnings("serial") // Never serialized, as any ForkJoinTask in practice.
+    private static final class ClampTask extends RecursiveAction {
+        private final RangeClamp range;
+        private final int from;
+        private final int to;
+
+        private ClampTask(RangeClamp range, int from, int to) {
+            this.range = range;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_CHUNK) {
+                range.clamp(from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ClampTask(range, from, middle), new ClampTask(range, middle, to));
+            }
+        }
+    }
+
+    private static void parallel(int length, RangeClamp range) {
+        if (length <= PARALLEL_CHUNK) {
+            range.clamp(0, length);
+        } else {
+            ForkJoinPool.commonPool().invoke(new ClampTask(range, 0, length));
+        }
+    }
+
+    public static void clamp(int[] values, int min, int max) {
+        clamp(values, values, min, max);
+    }
+
+    public static void clamp(int[] src, int[] dst, int min, int max) {
+        checkLengths(src.length, dst.length);
+        // Checks min and max as Math.clamp does.
+        Math.clamp(min, min, max);
+        clamp(src, dst, min, max, 0, src.length);
+    }
+
+    private static void clamp(int[] src, int[] dst, int min, int max, int from, int to) {
+        if (useVector(to - from)) {
+            VectorClamp.clamp(src, dst, min, max, from, to);
+        } else {
+            ScalarClamp.clamp(src, dst, min, max, from, to);
+        }
+    }
+
+    public static void parallelClamp(int[] values, int min, int max) {
+        parallelClamp(values, values, min, max);
+    }
+
+    public static void parallelClamp(int[] src, int[] dst, int min, int max) {
+        checkLengths(src.length, dst.length);
+        // Checks min and max as Math.clamp does.
+        Math.clamp(min, min, max);
+        parallel(src.length, (from, to) -> clamp(src, dst, min, max, from, to));
+    }
+
+    public static void clamp(long[] values, long min, long max) {
+        clamp(values, values, min, max);
+    }
+
+    public static void clamp(long[] src, long[] dst, long min, long max) {
+        checkLengths(src.length, dst.length);
+        // Checks min and max as Math.clamp does.
+        Math.clamp(min, min, max);
+        clamp(src, dst, min, max, 0, src.length);
+    }
+
+    private static void clamp(long[] src, long[] dst, long min, long max, int from, int to) {
+        if (useVector(to - from)) {
+            VectorClamp.clamp(src, dst, min, max, from, to);
+        } else {
+            ScalarClamp.clamp(src, dst, min, max, from, to);
+        }
+    }
+
+    public static void parallelClamp(long[] values, long min, long max) {
+        parallelClamp(values, values, min, max);
+    }
+
+    public static void parallelClamp(long[] src, long[] dst, long min, long max) {
+        checkLengths(src.length, dst.length);
+        // Checks min and max as Math.clamp does.
+        Math.clamp(min, min, max);
+        parallel(src.length, (from, to) -> clamp(src, dst, min, max, from, to));
+    }
+
+    public static void clamp(float[] values, float min, float max) {
+        clamp(values, values, min, max);
+    }
+
+    public static void clamp(float[] src, float[] dst, float min, float max) {
+        checkLengths(src.length, dst.length);
+        // Checks min and max as Math.clamp does.
+        Math.clamp(min, min, max);
+        clamp(src, dst, min, max, 0, src.length);
+    }
+
+    private static void clamp(float[] src, float[] dst, float min, float max, int from, int to) {
+        if (useVector(to - from)) {
+            VectorClamp.clamp(src, dst, min, max, from, to);
+        } else {
+            ScalarClamp.clamp(src, dst, min, max, from, to);
+        }
+    }
+
+    public static void parallelClamp(float[] values, float min, float max) {
+        parallelClamp(values, values, min, max);
+    }
+
+    public static void parallelClamp(float[] src, float[] dst, float min, float max) {
+        checkLengths(src.length, dst.length);
+        // Checks min and max as Math.clamp does.
+        Math.clamp(min, min, max);
+        parallel(src.length, (from, to) -> clamp(src, dst, min, max, from, to));
+    }
+
+    public static void clamp(double[] values, double min, double max) {
+        clamp(values, values, min, max);
+    }
+
+    public static void clamp(double[] src, double[] dst, double min, double max) {
+        checkLengths(src.length, dst.length);
+        // Checks min and max as Math.clamp does.
+        Math.clamp(min, min, max);
+        clamp(src, dst, min, max, 0, src.length);
+    }
+
+    private static void clamp(double[] src, double[] dst, double min, double max, int from, int to) {
+        if (useVector(to - from)) {
+            VectorClamp.clamp(src, dst, min, max, from, to);
+        } else {
+            ScalarClamp.clamp(src, dst, min, max, from, to);
+        }
+    }
+
+    public static void parallelClamp(double[] values, double min, double max) {
+        parallelClamp(values, values, min, max);
+    }
+
+    public static void parallelClamp(double[] src, double[] dst, double min, double max) {
+        checkLengths(src.length, dst.length);
+        // Checks min and max as Math.clamp does.
+        Math.clamp(min, min, max);
+        parallel(src.length, (from, to) -> clamp(src, dst, min, max, from, to));
+    }
+}
@@ -0,0 +1,152 @@
+package tutorial_000.languageNewFeatures;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares ScalarClamp (Math.clamp loop) with VectorClamp per element type across array sizes, and
+ * BulkClamp.parallelClamp per element type for arrays of more than PARALLEL_CHUNK elements (the smaller ones being
+ * clamped in the calling thread), in ns per array. Values are clamped from src into dst, so that each call does the
+ * same work.
+ *
+ * The forked JVMs are started with the jdk.incubator.vector module, which VectorClamp requires.
+ *
+ * On an AVX-512 machine, VectorClamp is about 10 times faster for int and long : the JIT does not vectorize the
+ * Math.clamp(long, int, int) and Math.clamp(long, long, long) loops. For float and double it is on par, the JIT already
+ * vectorizing their Math.max / Math.min loops. For 4M elements, all variants are bound by the memory bandwidth.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector"})
+public class BulkClampBenchmark {
+
+    /**
+     * Source and destination arrays of each element type.
+     */
+    public static class SampleArrays {
+        int[] ints;
+        int[] intsOut;
+        long[] longs;
+        long[] longsOut;
+        float[] floats;
+        float[] floatsOut;
+        double[] doubles;
+        double[] doublesOut;
+
+        void create(int size) {
+            SplittableRandom random = new SplittableRandom(42);
+            ints = random.ints(size, -2000, 2000).toArray();
+            longs = random.longs(size, -2000, 2000).toArray();
+            doubles = random.doubles(size, -2000, 2000).toArray();
+            floats = new float[size];
+            for (int i = 0; i < size; i++) {
+                floats[i] = (float) doubles[i];
+            }
+            intsOut = new int[size];
+            longsOut = new long[size];
+            floatsOut = new float[size];
+            doublesOut = new double[size];
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Samples extends SampleArrays {
+        @Param({"16", "1024", "65536", "4194304"})
+        private int size;
+
+        @Setup(Level.Trial)
+        public void createSamples() {
+            create(size);
+        }
+    }
+
+    /**
+     * Sizes above BulkClamp.PARALLEL_CHUNK only : below, parallelClamp is clamp.
+     */
+    @State(Scope.Benchmark)
+    public static class ParallelSamples extends SampleArrays {
+        @Param({"1048576", "4194304"})
+        private int size;
+
+        @Setup(Level.Trial)
+        public void createSamples() {
+            create(size);
+        }
+    }
+
+    @Benchmark
+    public int[] scalarInt(Samples s) {
+        ScalarClamp.clamp(s.ints, s.intsOut, -1000, 1000, 0, s.ints.length);
+        return s.intsOut;
+    }
+
+    @Benchmark
+    public int[] vectorInt(Samples s) {
+        VectorClamp.clamp(s.ints, s.intsOut, -1000, 1000, 0, s.ints.length);
+        return s.intsOut;
+    }
+
+    @Benchmark
+    public int[] parallelInt(ParallelSamples s) {
+        BulkClamp.parallelClamp(s.ints, s.intsOut, -1000, 1000);
+        return s.intsOut;
+    }
+
+    @Benchmark
+    public long[] scalarLong(Samples s) {
+        ScalarClamp.clamp(s.longs, s.longsOut, -1000, 1000, 0, s.longs.length);
+        return s.longsOut;
+    }
+
+    @Benchmark
+    public long[] vectorLong(Samples s) {
+        VectorClamp.clamp(s.longs, s.longsOut, -1000, 1000, 0, s.longs.length);
+        return s.longsOut;
+    }
+
+    @Benchmark
+    public long[] parallelLong(ParallelSamples s) {
+        BulkClamp.parallelClamp(s.longs, s.longsOut, -1000, 1000);
+        return s.longsOut;
+    }
+
+    @Benchmark
+    public float[] scalarFloat(Samples s) {
+        ScalarClamp.clamp(s.floats, s.floatsOut, -1000, 1000, 0, s.floats.length);
+        return s.floatsOut;
+    }
+
+    @Benchmark
+    public float[] vectorFloat(Samples s) {
+        VectorClamp.clamp(s.floats, s.floatsOut, -1000, 1000, 0, s.floats.length);
+        return s.floatsOut;
+    }
+
+    @Benchmark
+    public float[] parallelFloat(ParallelSamples s) {
+        BulkClamp.parallelClamp(s.floats, s.floatsOut, -1000, 1000);
+        return s.floatsOut;
+    }
+
+    @Benchmark
+    public double[] scalarDouble(Samples s) {
+        ScalarClamp.clamp(s.doubles, s.doublesOut, -1000, 1000, 0, s.doubles.length);
+        return s.doublesOut;
+    }
+
+    @Benchmark
+    public double[] vectorDouble(Samples s) {
+        VectorClamp.clamp(s.doubles, s.doublesOut, -1000, 1000, 0, s.doubles.length);
+        return s.doublesOut;
+    }
+
+    @Benchmark
+    public double[] parallelDouble(ParallelSamples s) {
+        BulkClamp.parallelClamp(s.doubles, s.doublesOut, -1000, 1000);
+        return s.doublesOut;
+    }
+}
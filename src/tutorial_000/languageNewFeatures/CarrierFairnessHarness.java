@@ -0,0 +1,103 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures how fairly tasks share threads when CPU-bound and blocking tasks are mixed.
+ *
+ * Virtual threads are not preemptive : a virtual thread spinning on the CPU keeps its carrier until it blocks or ends,
+ * so under CPU-heavy mixes the other virtual threads wait to be mounted. For each mix of MixedTask profiles, this harness
+ * runs the same tasks on virtual threads (carried by the ForkJoinPool) and on a platform pool sized to the core count,
+ * and reports for each task :
+ * - starvation : time between its submission and the start of its execution,
+ * - latency : time between its submission and its end, and its spread (p50, p99, max),
+ * - fairness : Jain's index of the slowdowns (latency / service time), 1 meaning every task was slowed down equally.
+ * Usage :
+ *   java -cp target/classes tutorial_000.languageNewFeatures.CarrierFairnessHarness [tasksNumber]
+ */
+public class CarrierFairnessHarness {
+
+    private static final int[] CPU_PERCENTS = { 10, 50, 90 };
+
+    public static void main(String[] args) {
+        int tasksNumber = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int processors = Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("Fairness over %d tasks on %d processors (CPU tasks : %s and %s, blocking tasks : %s).%n",
+                tasksNumber, processors, MixedTask.Profile.PARSING, MixedTask.Profile.HASHING, MixedTask.Profile.IO);
+        System.out.printf("%-16s | %5s | %8s | %23s | %23s | %8s%n",
+                "executor", "CPU %", "time", "starvation p50/p99/max", "latency p50/p99/max", "fairness");
+        System.out.println("-".repeat(97));
+        for (int cpuPercent : CPU_PERCENTS) {
+            MixedTask[] tasks = createTasks(tasksNumber, cpuPercent);
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                run("virtual", executor, tasks, cpuPercent);
+            }
+            try (ExecutorService executor = Executors.newFixedThreadPool(processors)) {
+                run("platform (" + processors + ")", executor, tasks, cpuPercent);
+            }
+        }
+    }
+
+    private static MixedTask[] createTasks(int tasksNumber, int cpuPercent) {
+        MixedTask[] tasks = new MixedTask[tasksNumber];
+        for (int i = 0; i < tasksNumber; i++) {
+            MixedTask.Profile profile;
+            if (i % 100 < cpuPercent) {
+                profile = i % 2 == 0 ? MixedTask.Profile.PARSING : MixedTask.Profile.HASHING;
+            } else {
+                profile = MixedTask.Profile.IO;
+            }
+            tasks[i] = new MixedTask(i, profile);
+        }
+        return tasks;
+    }
+
+    private static void run(String executorName, ExecutorService executor, MixedTask[] tasks, int cpuPercent) {
+        int tasksNumber = tasks.length;
+        long[] submitted = new long[tasksNumber];
+        long[] started = new long[tasksNumber];
+        long[] ended = new long[tasksNumber];
+
+        long time = System.currentTimeMillis();
+        for (int i = 0; i < tasksNumber; i++) {
+            int index = i;
+            submitted[index] = System.nanoTime();
+            executor.execute(() -> {
+                started[index] = System.nanoTime();
+                tasks[index].call();
+                ended[index] = System.nanoTime();
+            });
+        }
+        // Closing the executor waits for every task, and makes their timestamps visible to this thread.
+        executor.close();
+        time = System.currentTimeMillis() - time;
+
+        long[] starvations = new long[tasksNumber];
+        long[] latencies = new long[tasksNumber];
+        double slowdownSum = 0;
+        double slowdownSquareSum = 0;
+        for (int i = 0; i < tasksNumber; i++) {
+            starvations[i] = started[i] - submitted[i];
+            latencies[i] = ended[i] - submitted[i];
+            double slowdown = (double) latencies[i] / tasks[i].profile().serviceNanos();
+            slowdownSum += slowdown;
+            slowdownSquareSum += slowdown * slowdown;
+        }
+        double fairness = slowdownSum * slowdownSum / (tasksNumber * slowdownSquareSum);
+
+        System.out.printf("%-16s | %5d | %5d ms | %23s | %23s | %8.3f%n",
+                executorName, cpuPercent, time, percentiles(starvations), percentiles(latencies), fairness);
+    }
+
+    private static String percentiles(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return String.format("%.1f/%.1f/%.1f ms",
+                sorted[(int) (sorted.length * 0.50)] / 1_000_000.0,
+                sorted[(int) (sorted.length * 0.99)] / 1_000_000.0,
+                sorted[sorted.length - 1] / 1_000_000.0);
+    }
+}
@@ -0,0 +1,116 @@
+package tutorial_000.languageNewFeatures;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures how jdk.virtualThreadScheduler.parallelism and jdk.virtualThreadScheduler.maxPoolSize affect a virtual
+ * thread workload.
+ *
+ * These options are only read when the carrier pool is created, so each combination runs in its own forked JVM. The
+ * workload is a batch of tasks mixing CPU-bound tasks (CpuBoundTask) and blocking tasks (Task), and each forked JVM
+ * prints back its throughput and completion latency percentiles. Usage :
+ *   java -cp target/classes tutorial_000.languageNewFeatures.CarrierSchedulerSweep [tasksNumber]
+ */
+public class CarrierSchedulerSweep {
+
+    private static final String WORKER = "worker";
+    private static final String RESULT = "RESULT";
+
+    private static final long BLOCKING_MILLIS = 10;
+    private static final long SPIN_MILLIS = 1;
+    private static final int[] CPU_PERCENTS = { 0, 10, 50, 100 };
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals(WORKER)) {
+            runWorker(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+            return;
+        }
+
+        int tasksNumber = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int processors = Runtime.getRuntime().availableProcessors();
+        TreeSet<Integer> parallelisms = new TreeSet<>(List.of(1, 2, 4, processors));
+
+        System.out.printf("Sweep over %d tasks (CPU tasks spin %d ms, blocking tasks sleep %d ms) on %d processors.%n",
+                tasksNumber, SPIN_MILLIS, BLOCKING_MILLIS, processors);
+        System.out.printf("%11s | %11s | %5s | %14s | %10s | %10s%n", "parallelism", "maxPoolSize", "CPU %", "tasks/s", "p50 (ms)", "p99 (ms)");
+        System.out.println("-".repeat(77));
+        for (int parallelism : parallelisms) {
+            for (int maxPoolSize : new TreeSet<>(List.of(parallelism, 256))) {
+                for (int cpuPercent : CPU_PERCENTS) {
+                    double[] result = fork(parallelism, maxPoolSize, tasksNumber, cpuPercent);
+                    System.out.printf("%11d | %11d | %5d | %14.0f | %10.1f | %10.1f%n",
+                            parallelism, maxPoolSize, cpuPercent, result[0], result[1], result[2]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the workload in a new JVM with the given carrier pool settings, and returns its throughput (tasks/s), p50
+     * and p99 completion latency (ms).
+     */
+    private static double[] fork(int parallelism, int maxPoolSize, int tasksNumber, int cpuPercent) throws IOException, InterruptedException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java,
+                "-Djdk.virtualThreadScheduler.parallelism=" + parallelism,
+                "-Djdk.virtualThreadScheduler.maxPoolSize=" + maxPoolSize,
+                "-cp", System.getProperty("java.class.path"),
+                CarrierSchedulerSweep.class.getName(), WORKER, String.valueOf(tasksNumber), String.valueOf(cpuPercent))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        double[] result = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(RESULT)) {
+                    result = Arrays.stream(line.substring(RESULT.length()).trim().split(" ")).mapToDouble(Double::parseDouble).toArray();
+                }
+            }
+        }
+        if (process.waitFor() != 0 || result == null) {
+            throw new IllegalStateException("Worker failed for parallelism " + parallelism + ", maxPoolSize " + maxPoolSize + ", CPU " + cpuPercent + "%");
+        }
+        return result;
+    }
+
+    private static void runWorker(int tasksNumber, int cpuPercent) {
+        List<Callable<Integer>> tasks = new ArrayList<>(tasksNumber);
+        for (int i = 0; i < tasksNumber; i++) {
+            tasks.add(i % 100 < cpuPercent ? new CpuBoundTask(i, SPIN_MILLIS) : new Task(i, BLOCKING_MILLIS));
+        }
+
+        long[] latencies = new long[tasksNumber];
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < tasksNumber; i++) {
+                int index = i;
+                executor.execute(() -> {
+                    try {
+                        tasks.get(index).call();
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                    latencies[index] = System.nanoTime() - start;
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        System.out.printf("%s %.1f %.3f %.3f%n", RESULT,
+                tasksNumber * 1_000_000_000.0 / elapsed,
+                latencies[(int) (tasksNumber * 0.50)] / 1_000_000.0,
+                latencies[(int) (tasksNumber * 0.99)] / 1_000_000.0);
+    }
+}
@@ -0,0 +1,37 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.concurrent.Callable;
+
+/**
+ * CPU-bound counterpart of Task : spins on the CPU for spinMillis then returns a number derived from the computation.
+ * As it never blocks, the virtual thread running it is never unmounted from its carrier thread.
+ */
+public class CpuBoundTask implements Callable<Integer> {
+
+    private final int number;
+    private final long spinMillis;
+
+    public CpuBoundTask(int number, long spinMillis) {
+        this.number = number;
+        this.spinMillis = spinMillis;
+    }
+
+    @Override
+    public Integer call() {
+        return Math.floorMod(spin(number, spinMillis * 1_000_000), 100);
+    }
+
+    /**
+     * Busy loop of spinNanos, returning a hash computed from seed so that the loop cannot be optimized away.
+     */
+    static int spin(int seed, long spinNanos) {
+        long deadline = System.nanoTime() + spinNanos;
+        int hash = seed;
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 1_000; i++) {
+                hash = 31 * hash + i;
+            }
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,49 @@
+package tutorial_000.languageNewFeatures;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a batch of tasks with a deadline for the whole batch.
+ *
+ * When the deadline is reached, invokeAll(tasks, timeout, unit) cancels (and interrupts) every task that is not done
+ * yet : tasks still waiting in a pool queue never start, and running tasks blocked in sleep or I/O are woken up. So one
+ * slow task no longer delays the result of the batch, which is computed from the tasks that completed in time.
+ */
+public final class DeadlineBatch {
+
+    public record Result(long sum, int completed, int cancelled, int failed, long elapsedMillis) {}
+
+    private DeadlineBatch() {}
+
+    public static Result sum(ExecutorService executor, Collection<? extends Callable<Integer>> tasks, Duration deadline) throws InterruptedException {
+        long start = System.nanoTime();
+
+        List<Future<Integer>> futures = executor.invokeAll(tasks, deadline.toNanos(), TimeUnit.NANOSECONDS);
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        long sum = 0;
+        int completed = 0;
+        int cancelled = 0;
+        int failed = 0;
+        for (Future<Integer> future : futures) {
+            // Future.state() and resultNow() (java 19) read a done future without any checked exception.
+            switch (future.state()) {
+                case SUCCESS -> {
+                    sum += future.resultNow();
+                    completed++;
+                }
+                case CANCELLED -> cancelled++;
+                case FAILED -> failed++;
+                case RUNNING -> throw new IllegalStateException("invokeAll returned a running task");
+            }
+        }
+        return new Result(sum, completed, cancelled, failed, elapsedMillis);
+    }
+}
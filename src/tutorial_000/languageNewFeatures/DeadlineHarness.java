@@ -0,0 +1,59 @@
+package tutorial_000.languageNewFeatures;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures what a batch deadline saves and what cancelling the late tasks costs.
+ *
+ * Most tasks block for 100 to 200 ms, but one task in a thousand blocks for 5 seconds (the tail). The same batch runs
+ * on virtual threads without deadline, then with DeadlineBatch and a 1 second deadline, and the harness reports :
+ * - batch latency : time for invokeAll to return,
+ * - cancellation cost : time spent after the deadline to cancel the late tasks and return,
+ * - drain time : time for the executor to close once invokeAll returned, i.e. for the cancelled threads to end.
+ * Usage :
+ *   java -cp target/classes tutorial_000.languageNewFeatures.DeadlineHarness [tasksNumber]
+ */
+public class DeadlineHarness {
+
+    private static final Duration DEADLINE = Duration.ofSeconds(1);
+    private static final long TAIL_MILLIS = 5_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int tasksNumber = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        List<Callable<Integer>> tasks = new ArrayList<>(tasksNumber);
+        for (int i = 0; i < tasksNumber; i++) {
+            long sleepMillis = i % 1_000 == 0 ? TAIL_MILLIS : 100 + i % 100;
+            int number = i;
+            // Unlike Task, an interrupted task simply ends : nothing is printed for each cancelled task.
+            tasks.add(() -> {
+                Thread.sleep(sleepMillis);
+                return number % 100;
+            });
+        }
+
+        System.out.printf("%d tasks, 1 in 1 000 blocking %d ms, deadline %d ms.%n", tasksNumber, TAIL_MILLIS, DEADLINE.toMillis());
+        run("no deadline", tasks, Duration.ofDays(1));
+        run("deadline", tasks, DEADLINE);
+    }
+
+    private static void run(String label, List<Callable<Integer>> tasks, Duration deadline) throws InterruptedException {
+        DeadlineBatch.Result result;
+        long closeStart;
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try (executor) {
+            result = DeadlineBatch.sum(executor, tasks, deadline);
+            closeStart = System.nanoTime();
+        }
+        long drainMillis = (System.nanoTime() - closeStart) / 1_000_000;
+        long cancellationMillis = result.cancelled() > 0 ? result.elapsedMillis() - deadline.toMillis() : 0;
+
+        System.out.printf("%-11s : batch latency = %d ms; completed = %d; cancelled = %d; failed = %d; sum = %d; cancellation cost = %d ms; drain = %d ms%n",
+                label, result.elapsedMillis(), result.completed(), result.cancelled(), result.failed(), result.sum(), cancellationMillis, drainMillis);
+    }
+}
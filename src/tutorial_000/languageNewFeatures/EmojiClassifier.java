@@ -0,0 +1,330 @@
+package tutorial_000.languageNewFeatures;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Classifier of code points by the emoji properties of the new Character methods of java 21 (isEmoji,
+ * isEmojiPresentation, isExtendedPictographic...), for scanning large volumes of text : chat messages to moderate, logs...
+ *
+ * The properties of every code point are computed once, from the Character methods themselves, into a two-level table
+ * : blocks of 256 code points, identical blocks being stored once (the whole table takes about 25 KB). So a classifier
+ * gives exactly the answers of the Character methods of the running JDK, each in two array reads. Computing the table
+ * calls the 6 methods for the 1.1 million code points : about 0.2 s, once, when this class is initialized.
+ *
+ * An EmojiClassifier matches the code points having any of its properties :
+ *
+ *     EmojiClassifier emojis = EmojiClassifier.of(Property.EMOJI_PRESENTATION, Property.EXTENDED_PICTOGRAPHIC);
+ *     int count = emojis.count(message);
+ *     for (int i = emojis.indexOf(message, 0, message.length()); i >= 0; i = emojis.indexOf(message, i + 1, message.length())) ...
+ *
+ * Text is either a CharSequence (offsets are char indexes) or UTF-8 bytes in a byte[] or a ByteBuffer (offsets are byte
+ * indexes), scanned in one pass without being decoded into a String. In UTF-8 bytes, words of eight ASCII bytes are
+ * skipped at once when none of their bytes matches. Malformed UTF-8 sequences are skipped, as String would decode them
+ * into U+FFFD, which has no emoji property.
+ *
+ * Beware that Property.EMOJI and Property.EMOJI_COMPONENT include '#', '*' and the digits : they are keycap bases.
+ */
+public final class EmojiClassifier {
+
+    public enum Property {
+        EMOJI,
+        EMOJI_PRESENTATION,
+        EMOJI_MODIFIER,
+        EMOJI_MODIFIER_BASE,
+        EMOJI_COMPONENT,
+        EXTENDED_PICTOGRAPHIC;
+
+        private int bit() {
+            return 1 << ordinal();
+        }
+    }
+
+    private static final int BLOCK_SHIFT = 8;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    // Properties of code point c (one bit per Property) : BLOCKS[BLOCK_STARTS[c >>> BLOCK_SHIFT] + (c & BLOCK_SIZE - 1)].
+    private static final int[] BLOCK_STARTS = new int[(Character.MAX_CODE_POINT + 1) >>> BLOCK_SHIFT];
+    private static final byte[] BLOCKS;
+
+    static {
+        Map<ByteBuffer, Integer> starts = new HashMap<>();
+        byte[] blocks = new byte[BLOCK_SIZE * 64];
+        for (int block = 0; block < BLOCK_STARTS.length; block++) {
+            byte[] properties = new byte[BLOCK_SIZE];
+            for (int i = 0; i < BLOCK_SIZE; i++) {
+                properties[i] = characterProperties(block << BLOCK_SHIFT | i);
+            }
+            Integer start = starts.get(ByteBuffer.wrap(properties));
+            if (start == null) {
+                start = starts.size() * BLOCK_SIZE;
+                if (start == blocks.length) {
+                    blocks = Arrays.copyOf(blocks, blocks.length * 2);
+                }
+                System.arraycopy(properties, 0, blocks, start, BLOCK_SIZE);
+                starts.put(ByteBuffer.wrap(properties), start);
+            }
+            BLOCK_STARTS[block] = start;
+        }
+        BLOCKS = Arrays.copyOf(blocks, starts.size() * BLOCK_SIZE);
+    }
+
+    /**
+     * Properties of codePoint according to the Character methods.
+     */
+    private static byte characterProperties(int codePoint) {
+        int properties = 0;
+        if (Character.isEmoji(codePoint)) {
+            properties |= Property.EMOJI.bit();
+        }
+        if (Character.isEmojiPresentation(codePoint)) {
+            properties |= Property.EMOJI_PRESENTATION.bit();
+        }
+        if (Character.isEmojiModifier(codePoint)) {
+            properties |= Property.EMOJI_MODIFIER.bit();
+        }
+        if (Character.isEmojiModifierBase(codePoint)) {
+            properties |= Property.EMOJI_MODIFIER_BASE.bit();
+        }
+        if (Character.isEmojiComponent(codePoint)) {
+            properties |= Property.EMOJI_COMPONENT.bit();
+        }
+        if (Character.isExtendedPictographic(codePoint)) {
+            properties |= Property.EXTENDED_PICTOGRAPHIC.bit();
+        }
+        return (byte) properties;
+    }
+
+    private final int mask;
+    // ASCII chars matched by this classifier : bit c of asciiLow for c < 64, bit c - 64 of asciiHigh otherwise.
+    private final long asciiLow;
+    private final long asciiHigh;
+    // Added to each byte of a word of ASCII bytes, these set its high bit iff the byte is >= the first matched ASCII
+    // char, and clear it iff the byte is <= the last one (no carry crosses bytes, all sums being below 0x100).
+    private final long aboveFirstAscii;
+    private final long belowLastAscii;
+
+    private EmojiClassifier(int mask) {
+        this.mask = mask;
+        long low = 0;
+        long high = 0;
+        for (int c = 0; c < 128; c++) {
+            if ((BLOCKS[c] & mask) != 0) {
+                if (c < 64) {
+                    low |= 1L << c;
+                } else {
+                    high |= 1L << c;
+                }
+            }
+        }
+        this.asciiLow = low;
+        this.asciiHigh = high;
+        int first = low != 0 ? Long.numberOfTrailingZeros(low) : high != 0 ? 64 + Long.numberOfTrailingZeros(high) : 0x80;
+        int last = high != 0 ? 127 - Long.numberOfLeadingZeros(high) : low != 0 ? 63 - Long.numberOfLeadingZeros(low) : 0x7F;
+        this.aboveFirstAscii = LOW_BITS * (0x80 - first);
+        this.belowLastAscii = LOW_BITS * (0x7F - last);
+    }
+
+    /**
+     * Classifier matching the code points having at least one of the given properties.
+     */
+    public static EmojiClassifier of(Property first, Property... others) {
+        int mask = first.bit();
+        for (Property property : others) {
+            mask |= property.bit();
+        }
+        return new EmojiClassifier(mask);
+    }
+
+    /**
+     * Whether codePoint has property : same result as the corresponding Character method.
+     */
+    public static boolean has(int codePoint, Property property) {
+        return (properties(codePoint) & property.bit()) != 0;
+    }
+
+    private static int properties(int codePoint) {
+        if (codePoint < 0 || codePoint > Character.MAX_CODE_POINT) {
+            return 0;
+        }
+        return BLOCKS[BLOCK_STARTS[codePoint >>> BLOCK_SHIFT] + (codePoint & BLOCK_SIZE - 1)];
+    }
+
+    public boolean test(int codePoint) {
+        return (properties(codePoint) & mask) != 0;
+    }
+
+    private boolean testAscii(int c) {
+        // Shifts of a long only use the 6 low bits of their distance : c - 64 is implied for asciiHigh.
+        return ((c < 64 ? asciiLow : asciiHigh) >>> c & 1) != 0;
+    }
+
+    /**
+     * Whether a byte of word, made of ASCII bytes, is between the first and the last matched ASCII chars : false if no
+     * byte of word matches.
+     */
+    private boolean mayMatchAscii(long word) {
+        return ((word + aboveFirstAscii) & ~(word + belowLastAscii) & HIGH_BITS) != 0;
+    }
+
+    public int count(CharSequence text) {
+        return count(text, 0, text.length());
+    }
+
+    /**
+     * Number of matching code points in [from, to) of text. A surrogate pair crossing from or to is not a code point.
+     */
+    public int count(CharSequence text, int from, int to) {
+        int count = 0;
+        for (int index = indexOf(text, from, to); index >= 0; index = indexOf(text, index + 1, to)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Index of the first matching code point starting in [from, to) of text, or -1.
+     */
+    public int indexOf(CharSequence text, int from, int to) {
+        Objects.checkFromToIndex(from, to, text.length());
+        int index = from;
+        while (index < to) {
+            char c = text.charAt(index);
+            if (c < 0x80) {
+                if (testAscii(c)) {
+                    return index;
+                }
+                index++;
+                continue;
+            }
+            int codePoint = c;
+            int length = 1;
+            if (Character.isHighSurrogate(c) && index + 1 < to && Character.isLowSurrogate(text.charAt(index + 1))) {
+                codePoint = Character.toCodePoint(c, text.charAt(index + 1));
+                length = 2;
+            }
+            if (test(codePoint)) {
+                return index;
+            }
+            index += length;
+        }
+        return -1;
+    }
+
+    public int count(byte[] utf8) {
+        return count(utf8, 0, utf8.length);
+    }
+
+    /**
+     * Number of matching code points in the UTF-8 bytes [from, to) of utf8.
+     */
+    public int count(byte[] utf8, int from, int to) {
+        return count(ByteBuffer.wrap(utf8), from, to);
+    }
+
+    /**
+     * Index of the first byte of the first matching code point in the UTF-8 bytes [from, to) of utf8, or -1.
+     */
+    public int indexOf(byte[] utf8, int from, int to) {
+        return indexOf(ByteBuffer.wrap(utf8), from, to);
+    }
+
+    /**
+     * Number of matching code points in the UTF-8 bytes between the position and the limit of utf8, whose position is
+     * left unchanged.
+     */
+    public int count(ByteBuffer utf8) {
+        return count(utf8, utf8.position(), utf8.limit());
+    }
+
+    /**
+     * Number of matching code points in the UTF-8 bytes [from, to) of utf8 (absolute indexes, as ByteBuffer.get(int)).
+     */
+    public int count(ByteBuffer utf8, int from, int to) {
+        int count = 0;
+        for (int index = indexOf(utf8, from, to); index >= 0; index = indexOf(utf8, index + 1, to)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Absolute index of the first byte of the first matching code point in the UTF-8 bytes [from, to) of utf8, or -1.
+     * The position of utf8 is left unchanged.
+     */
+    public int indexOf(ByteBuffer utf8, int from, int to) {
+        Objects.checkFromToIndex(from, to, utf8.limit());
+        int index = from;
+        while (index < to) {
+            int lead = utf8.get(index) & 0xFF;
+            if (lead < 0x80) {
+                // ASCII fast path, tried after an ASCII byte only : no byte of the word has its high bit set (whatever
+                // the byte order of utf8), and none is in the range of the matched ASCII chars.
+                if (index + Long.BYTES <= to) {
+                    long word = utf8.getLong(index);
+                    if ((word & HIGH_BITS) == 0 && !mayMatchAscii(word)) {
+                        index += Long.BYTES;
+                        continue;
+                    }
+                }
+                if (testAscii(lead)) {
+                    return index;
+                }
+                index++;
+                continue;
+            }
+            int codePoint = decode(utf8, index, to, lead);
+            if (codePoint < 0) {
+                // Malformed : the next bytes are decoded as if this one was replaced by U+FFFD.
+                index++;
+                continue;
+            }
+            if (test(codePoint)) {
+                return index;
+            }
+            index += Character.charCount(codePoint) == 2 ? 4 : codePoint < 0x800 ? 2 : 3;
+        }
+        return -1;
+    }
+
+    /**
+     * Code point of the sequence starting with lead at index, or -1 if malformed (as defined by the UTF-8 decoder of
+     * String : overlong forms and encoded surrogates included) or cut by to.
+     */
+    private static int decode(ByteBuffer utf8, int index, int to, int lead) {
+        int length;
+        int codePoint;
+        if (lead >= 0xC2 && lead <= 0xDF) {
+            length = 2;
+            codePoint = lead & 0x1F;
+        } else if (lead >= 0xE0 && lead <= 0xEF) {
+            length = 3;
+            codePoint = lead & 0x0F;
+        } else if (lead >= 0xF0 && lead <= 0xF4) {
+            length = 4;
+            codePoint = lead & 0x07;
+        } else {
+            return -1;
+        }
+        if (index + length > to) {
+            return -1;
+        }
+        for (int i = 1; i < length; i++) {
+            int next = utf8.get(index + i);
+            if ((next & 0xC0) != 0x80) {
+                return -1;
+            }
+            codePoint = codePoint << 6 | next & 0x3F;
+        }
+        if (length == 3 && (codePoint < 0x800 || Character.isSurrogate((char) codePoint))
+                || length == 4 && (codePoint < 0x10000 || codePoint > Character.MAX_CODE_POINT)) {
+            return -1;
+        }
+        return codePoint;
+    }
+}
@@ -0,0 +1,39 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The executors compared in _001_VirtualThreads, so that benchmarks and harnesses may switch between them by name.
+ */
+public enum ExecutorKind {
+    /**
+     * The pool of 100 platform threads used by executePlatformThreads.
+     */
+    FIXED_POOL {
+        @Override
+        public ExecutorService newExecutor() {
+            return Executors.newFixedThreadPool(100);
+        }
+    },
+    /**
+     * One new virtual thread per task, as used by executeVirtualThreads.
+     */
+    VIRTUAL_PER_TASK {
+        @Override
+        public ExecutorService newExecutor() {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+    },
+    /**
+     * A work-stealing ForkJoinPool sized to the available processors, like the carrier pool of virtual threads.
+     */
+    FORK_JOIN {
+        @Override
+        public ExecutorService newExecutor() {
+            return Executors.newWorkStealingPool();
+        }
+    };
+
+    public abstract ExecutorService newExecutor();
+}
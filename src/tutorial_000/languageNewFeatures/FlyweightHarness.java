@@ -0,0 +1,71 @@
+package tutorial_000.languageNewFeatures;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
+/**
+ * Compares heap footprint and GC pauses of the two ways to describe a huge fan-out :
+ * - objects : one Task per index, all stored in a List before being submitted (as executeVirtualThreads does),
+ * - flyweight : a single Task.flyweight definition, applied to each index while submitting (IntResults.invokeRange).
+ * Both modes write their results into an int[], so the difference comes from the task objects only. Usage :
+ *   java -cp target/classes tutorial_000.languageNewFeatures.FlyweightHarness [tasksNumber] [sleepMillis]
+ */
+public class FlyweightHarness {
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int tasksNumber = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long sleepMillis = args.length > 1 ? Long.parseLong(args[1]) : 0;
+
+        System.out.printf("%d tasks sleeping %d ms.%n", tasksNumber, sleepMillis);
+        for (ExecutorKind executorKind : List.of(ExecutorKind.VIRTUAL_PER_TASK, ExecutorKind.FIXED_POOL)) {
+            run(executorKind, "objects", tasksNumber, sleepMillis, false);
+            run(executorKind, "flyweight", tasksNumber, sleepMillis, true);
+        }
+    }
+
+    private static void run(ExecutorKind executorKind, String mode, int tasksNumber, long sleepMillis, boolean flyweight) throws InterruptedException, ExecutionException {
+        int[] results = new int[tasksNumber];
+        PeakHeap.reset();
+        long gcCount = gcCount();
+        long gcMillis = gcMillis();
+        long time = System.currentTimeMillis();
+
+        try (ExecutorService executor = executorKind.newExecutor()) {
+            if (flyweight) {
+                IntResults.invokeRange(executor, tasksNumber, Task.flyweight(sleepMillis), results);
+            } else {
+                List<Task> tasks = new ArrayList<>();
+                for (int i = 0; i < tasksNumber; i++) {
+                    tasks.add(new Task(i, sleepMillis));
+                }
+                IntResults.invokeAll(executor, tasks, results);
+            }
+        }
+
+        time = System.currentTimeMillis() - time;
+        System.out.printf("%-16s %-9s : sum = %d; time = %d ms; peak heap = %d MB; GC = %d collections, %d ms%n",
+                executorKind, mode, IntResults.sum(results, tasksNumber), time, PeakHeap.megaBytes(), gcCount() - gcCount, gcMillis() - gcMillis);
+    }
+
+    private static long gcCount() {
+        return pauseCollectors().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+        return pauseCollectors().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    /**
+     * Collectors whose collection time is a pause : G1 (as ZGC and Shenandoah) also exposes a bean counting the time of
+     * its concurrent cycles ("G1 Concurrent GC"), spent while the application keeps running.
+     */
+    private static Stream<GarbageCollectorMXBean> pauseCollectors() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .filter(collector -> !collector.getName().contains("Concurrent") && !collector.getName().contains("Cycles"));
+    }
+}
@@ -0,0 +1,108 @@
+package tutorial_000.languageNewFeatures;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import tutorial_000.languageNewFeatures.BatchGeometry.Pairs2D;
+import tutorial_000.languageNewFeatures.BatchGeometry.Pairs3D;
+
+/**
+ * Compares ScalarGeometry with VectorGeometry for 2D and 3D pairs, across batch sizes. The smallest sizes show from
+ * where the vector loop pays off (see BatchGeometry.VECTOR_THRESHOLD), the biggest ones where memory bandwidth becomes
+ * the limit. Distances are bound by the square root throughput ; displacements are auto-vectorized by the JIT in the
+ * scalar version, so they are expected to gain little.
+ *
+ * The forked JVMs are started with the jdk.incubator.vector module, which VectorGeometry requires.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector"})
+public class GeometryBenchmark {
+
+    @Param({"16", "64", "1024", "65536", "1048576"})
+    private int size;
+
+    private Pairs2D pairs2D;
+    private Pairs3D pairs3D;
+    private double[] distances;
+    private int[] dx;
+    private int[] dy;
+    private int[] dz;
+
+    @Setup(Level.Trial)
+    public void createPairs() {
+        SplittableRandom random = new SplittableRandom(42);
+        pairs2D = new Pairs2D(coordinates(random), coordinates(random), coordinates(random), coordinates(random));
+        pairs3D = new Pairs3D(coordinates(random), coordinates(random), coordinates(random),
+                coordinates(random), coordinates(random), coordinates(random));
+        distances = new double[size];
+        dx = new int[size];
+        dy = new int[size];
+        dz = new int[size];
+    }
+
+    private int[] coordinates(SplittableRandom random) {
+        return random.ints(size, -100_000, 100_000).toArray();
+    }
+
+    @Benchmark
+    public double[] distances2DScalar() {
+        ScalarGeometry.distances(pairs2D, distances);
+        return distances;
+    }
+
+    @Benchmark
+    public double[] distances2DVector() {
+        VectorGeometry.distances(pairs2D, distances);
+        return distances;
+    }
+
+    @Benchmark
+    public double[] distances3DScalar() {
+        ScalarGeometry.distances(pairs3D, distances);
+        return distances;
+    }
+
+    @Benchmark
+    public double[] distances3DVector() {
+        VectorGeometry.distances(pairs3D, distances);
+        return distances;
+    }
+
+    @Benchmark
+    public double totalDistance2DScalar() {
+        return ScalarGeometry.totalDistance(pairs2D);
+    }
+
+    @Benchmark
+    public double totalDistance2DVector() {
+        return VectorGeometry.totalDistance(pairs2D);
+    }
+
+    @Benchmark
+    public double totalDistance3DScalar() {
+        return ScalarGeometry.totalDistance(pairs3D);
+    }
+
+    @Benchmark
+    public double totalDistance3DVector() {
+        return VectorGeometry.totalDistance(pairs3D);
+    }
+
+    @Benchmark
+    public int[] displacements3DScalar() {
+        ScalarGeometry.displacements(pairs3D, dx, dy, dz);
+        return dz;
+    }
+
+    @Benchmark
+    public int[] displacements3DVector() {
+        VectorGeometry.displacements(pairs3D, dx, dy, dz);
+        return dz;
+    }
+}
@@ -0,0 +1,10 @@
+package tutorial_000.languageNewFeatures;
+
+/**
+ * Stateless task definition, applied to the index of each task : one instance stands for a whole range of tasks.
+ */
+@FunctionalInterface
+public interface IndexedIntCallable {
+
+    int callAsInt(int index) throws Exception;
+}
@@ -0,0 +1,10 @@
+package tutorial_000.languageNewFeatures;
+
+/**
+ * Primitive specialization of Callable<Integer> : the result is returned as an int, without boxing it into an Integer.
+ */
+@FunctionalInterface
+public interface IntCallable {
+
+    int callAsInt() throws Exception;
+}
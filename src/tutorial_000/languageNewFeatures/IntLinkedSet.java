@@ -0,0 +1,516 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.SequencedSet;
+
+/**
+ * Insertion-ordered set of int values, the primitive counterpart of LinkedHashSet<Integer>.
+ *
+ * LinkedHashSet allocates an Integer and a linked hash node (about 50 bytes) per element. Here, no object is allocated
+ * per element :
+ * - an open addressing hash table (linear probing) maps each value to its position in the order array,
+ * - the order array is a circular int[] holding the values in sequence, so that addFirst, addLast, removeFirst and
+ *   removeLast run in constant time. Values removed from the middle leave a hole, skipped by iteration and squeezed out
+ *   when the array has to grow.
+ *
+ * As a SequencedSet<Integer>, addFirst and addLast move an element already present to the beginning or the end of the
+ * set, and reversed() returns an O(1) reverse-ordered view. Each boxed method has a primitive counterpart (addFirstInt,
+ * getLastInt...) for hot paths.
+ */
+public class IntLinkedSet extends AbstractSet<Integer> implements SequencedSet<Integer> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Hash table : keys[slot] is at absolute position positions[slot] of the order array. Length is a power of two.
+    private int[] keys;
+    private int[] positions;
+    private boolean[] used;
+    private int size;
+
+    // Order array : values from absolute position head (inclusive) to tail (exclusive), with holes. Absolute positions
+    // are mapped to the array with a mask, and only compared through their differences so that they may wrap.
+    private int[] order;
+    private long[] holes;
+    private int head;
+    private int tail;
+    private int holeCount;
+
+    private int modCount;
+
+    public IntLinkedSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntLinkedSet(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal size : " + expectedSize);
+        }
+        int orderLength = Math.max(2, Integer.highestOneBit(Math.max(1, expectedSize) - 1) << 1);
+        allocateTable(orderLength * 2);
+        order = new int[orderLength];
+        holes = new long[Math.max(1, orderLength >> 6)];
+    }
+
+    public static IntLinkedSet of(int... values) {
+        IntLinkedSet set = new IntLinkedSet(values.length);
+        for (int value : values) {
+            set.addInt(value);
+        }
+        return set;
+    }
+
+    // ---------- Hash table ----------
+
+    private void allocateTable(int length) {
+        keys = new int[length];
+        positions = new int[length];
+        used = new boolean[length];
+    }
+
+    private static int hash(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int slotOf(int value) {
+        int mask = keys.length - 1;
+        for (int slot = hash(value) & mask; used[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == value) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void insertSlot(int value, int position) {
+        int mask = keys.length - 1;
+        int slot = hash(value) & mask;
+        while (used[slot]) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = value;
+        positions[slot] = position;
+        used[slot] = true;
+    }
+
+    /**
+     * Backward shift deletion : entries following the deleted slot are moved back, so that no tombstone is needed.
+     */
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; used[next]; next = (next + 1) & mask) {
+            int ideal = hash(keys[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                positions[hole] = positions[next];
+                hole = next;
+            }
+        }
+        used[hole] = false;
+    }
+
+    // ---------- Order array ----------
+
+    private int physical(int position) {
+        return position & (order.length - 1);
+    }
+
+    private boolean isHole(int position) {
+        int physical = physical(position);
+        return (holes[physical >>> 6] & (1L << physical)) != 0;
+    }
+
+    private void setHole(int position, boolean hole) {
+        int physical = physical(position);
+        if (hole) {
+            holes[physical >>> 6] |= 1L << physical;
+        } else {
+            holes[physical >>> 6] &= ~(1L << physical);
+        }
+    }
+
+    private boolean inOrder(int position) {
+        return position - head >= 0 && tail - position > 0;
+    }
+
+    private void link(int value, boolean first) {
+        if ((size + 1) * 2 > keys.length) {
+            rebuildTable(keys.length << 1);
+        }
+        insertSlot(value, appendToOrder(value, first));
+        size++;
+        modCount++;
+    }
+
+    private void unlink(int slot) {
+        removeFromOrder(positions[slot]);
+        deleteSlot(slot);
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Moves the value of slot to the beginning or the end of the order array. The hash table is left untouched : only
+     * the position stored in the slot changes.
+     */
+    private void move(int slot, boolean first) {
+        removeFromOrder(positions[slot]);
+        positions[slot] = appendToOrder(keys[slot], first);
+        modCount++;
+    }
+
+    private int appendToOrder(int value, boolean first) {
+        if (tail - head == order.length) {
+            // Squeeze the holes out, growing only when they are few. Table slots do not move, only their positions.
+            rebuildOrder(4L * holeCount >= order.length ? order.length : order.length << 1);
+        }
+        int position = first ? --head : tail++;
+        order[physical(position)] = value;
+        return position;
+    }
+
+    private void removeFromOrder(int position) {
+        setHole(position, true);
+        holeCount++;
+
+        // First and last positions are never holes.
+        while (head != tail && isHole(head)) {
+            setHole(head++, false);
+            holeCount--;
+        }
+        while (head != tail && isHole(tail - 1)) {
+            setHole(--tail, false);
+            holeCount--;
+        }
+    }
+
+    private void rebuildOrder(int length) {
+        if (length <= 0) {
+            throw new OutOfMemoryError("IntLinkedSet too large");
+        }
+        int[] newOrder = new int[length];
+        int newPosition = 0;
+        for (int position = head; position != tail; position++) {
+            if (!isHole(position)) {
+                int value = order[physical(position)];
+                newOrder[newPosition] = value;
+                positions[slotOf(value)] = newPosition;
+                newPosition++;
+            }
+        }
+        order = newOrder;
+        holes = new long[Math.max(1, length >> 6)];
+        head = 0;
+        tail = newPosition;
+        holeCount = 0;
+    }
+
+    private void rebuildTable(int length) {
+        if (length <= 0) {
+            throw new OutOfMemoryError("IntLinkedSet too large");
+        }
+        allocateTable(length);
+        for (int position = head; position != tail; position++) {
+            if (!isHole(position)) {
+                insertSlot(order[physical(position)], position);
+            }
+        }
+    }
+
+    // ---------- Primitive API ----------
+
+    public boolean containsInt(int value) {
+        return slotOf(value) >= 0;
+    }
+
+    /**
+     * Adds value at the end of the set if it is not already present (Set.add semantics : an existing value is not moved).
+     */
+    public boolean addInt(int value) {
+        if (slotOf(value) >= 0) {
+            return false;
+        }
+        link(value, false);
+        return true;
+    }
+
+    /**
+     * Adds value at the beginning of the set, moving it there if it is already present.
+     */
+    public void addFirstInt(int value) {
+        int slot = slotOf(value);
+        if (slot < 0) {
+            link(value, true);
+        } else if (positions[slot] != head) {
+            move(slot, true);
+        }
+    }
+
+    /**
+     * Adds value at the end of the set, moving it there if it is already present.
+     */
+    public void addLastInt(int value) {
+        int slot = slotOf(value);
+        if (slot < 0) {
+            link(value, false);
+        } else if (positions[slot] != tail - 1) {
+            move(slot, false);
+        }
+    }
+
+    public boolean removeInt(int value) {
+        int slot = slotOf(value);
+        if (slot < 0) {
+            return false;
+        }
+        unlink(slot);
+        return true;
+    }
+
+    public int getFirstInt() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return order[physical(head)];
+    }
+
+    public int getLastInt() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return order[physical(tail - 1)];
+    }
+
+    public int removeFirstInt() {
+        int first = getFirstInt();
+        removeInt(first);
+        return first;
+    }
+
+    public int removeLastInt() {
+        int last = getLastInt();
+        removeInt(last);
+        return last;
+    }
+
+    public int[] toIntArray() {
+        int[] values = new int[size];
+        int i = 0;
+        for (int position = head; position != tail; position++) {
+            if (!isHole(position)) {
+                values[i++] = order[physical(position)];
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new OrderIterator(false);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(used, false);
+        Arrays.fill(holes, 0);
+        head = 0;
+        tail = 0;
+        holeCount = 0;
+        size = 0;
+        modCount++;
+    }
+
+    // ---------- Boxed Set / SequencedSet methods ----------
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer value && containsInt(value);
+    }
+
+    @Override
+    public boolean add(Integer value) {
+        return addInt(value);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Integer value && removeInt(value);
+    }
+
+    @Override
+    public void addFirst(Integer value) {
+        addFirstInt(value);
+    }
+
+    @Override
+    public void addLast(Integer value) {
+        addLastInt(value);
+    }
+
+    @Override
+    public Integer getFirst() {
+        return getFirstInt();
+    }
+
+    @Override
+    public Integer getLast() {
+        return getLastInt();
+    }
+
+    @Override
+    public Integer removeFirst() {
+        return removeFirstInt();
+    }
+
+    @Override
+    public Integer removeLast() {
+        return removeLastInt();
+    }
+
+    @Override
+    public SequencedSet<Integer> reversed() {
+        return new ReversedView();
+    }
+
+    private final class OrderIterator implements PrimitiveIterator.OfInt {
+
+        private final boolean descending;
+        private int next;
+        private int lastReturned;
+        private boolean canRemove;
+        private int expectedModCount = modCount;
+
+        private OrderIterator(boolean descending) {
+            this.descending = descending;
+            this.next = descending ? tail - 1 : head;
+        }
+
+        @Override
+        public boolean hasNext() {
+            checkForComodification();
+            // remove() may have trimmed the holes at the end we start from, beyond the next position.
+            if (descending && next - (tail - 1) > 0) {
+                next = tail - 1;
+            } else if (!descending && next - head < 0) {
+                next = head;
+            }
+            while (inOrder(next) && isHole(next)) {
+                next += descending ? -1 : 1;
+            }
+            return inOrder(next);
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = order[physical(next)];
+            next += descending ? -1 : 1;
+            canRemove = true;
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (!canRemove) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            // Removing leaves a hole (or trims an end) : positions of the remaining values do not change.
+            removeInt(lastReturned);
+            expectedModCount = modCount;
+            canRemove = false;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    private final class ReversedView extends AbstractSet<Integer> implements SequencedSet<Integer> {
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return new OrderIterator(true);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return IntLinkedSet.this.contains(o);
+        }
+
+        @Override
+        public boolean add(Integer value) {
+            // The end of this view is the beginning of the set.
+            if (containsInt(value)) {
+                return false;
+            }
+            addFirstInt(value);
+            return true;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return IntLinkedSet.this.remove(o);
+        }
+
+        @Override
+        public void clear() {
+            IntLinkedSet.this.clear();
+        }
+
+        @Override
+        public void addFirst(Integer value) {
+            addLastInt(value);
+        }
+
+        @Override
+        public void addLast(Integer value) {
+            addFirstInt(value);
+        }
+
+        @Override
+        public Integer getFirst() {
+            return getLastInt();
+        }
+
+        @Override
+        public Integer getLast() {
+            return getFirstInt();
+        }
+
+        @Override
+        public Integer removeFirst() {
+            return removeLastInt();
+        }
+
+        @Override
+        public Integer removeLast() {
+            return removeFirstInt();
+        }
+
+        @Override
+        public SequencedSet<Integer> reversed() {
+            return IntLinkedSet.this;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * List of int values, stored without boxing in a circular int[] : besides indexed access, addFirst, addLast, removeFirst
+ * and removeLast all run in constant (amortized) time, like in an ArrayDeque.
+ *
+ * As a List, it is a SequencedCollection<Integer> : the boxed methods (getFirst(), addFirst(Integer), reversed()...) are
+ * available for interoperability, and each has a primitive counterpart (getFirstInt(), addFirstInt(int)...) for hot paths.
+ * reversed() is the O(1) reverse-ordered view provided by List : changes to the view write through to this list.
+ */
+public class IntList extends AbstractList<Integer> implements RandomAccess {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Length is a power of two, so that physical indexes wrap with a mask.
+    private int[] elements;
+    private int head;
+    private int size;
+
+    public IntList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity : " + initialCapacity);
+        }
+        elements = new int[Math.max(2, Integer.highestOneBit(Math.max(1, initialCapacity) - 1) << 1)];
+    }
+
+    public static IntList of(int... values) {
+        IntList list = new IntList(values.length);
+        for (int value : values) {
+            list.addLastInt(value);
+        }
+        return list;
+    }
+
+    private int physical(int index) {
+        return (head + index) & (elements.length - 1);
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity <= elements.length) {
+            return;
+        }
+        int newLength = elements.length << 1;
+        if (newLength <= 0) {
+            throw new OutOfMemoryError("IntList too large");
+        }
+        elements = copyElements(newLength);
+        head = 0;
+    }
+
+    private int[] copyElements(int length) {
+        int[] copy = new int[length];
+        int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, copy, 0, firstPart);
+        System.arraycopy(elements, 0, copy, firstPart, size - firstPart);
+        return copy;
+    }
+
+    public int getInt(int index) {
+        Objects.checkIndex(index, size);
+        return elements[physical(index)];
+    }
+
+    public int setInt(int index, int value) {
+        Objects.checkIndex(index, size);
+        int physical = physical(index);
+        int previous = elements[physical];
+        elements[physical] = value;
+        return previous;
+    }
+
+    public void addFirstInt(int value) {
+        ensureCapacity(size + 1);
+        head = (head - 1) & (elements.length - 1);
+        elements[head] = value;
+        size++;
+        modCount++;
+    }
+
+    public void addLastInt(int value) {
+        ensureCapacity(size + 1);
+        elements[physical(size)] = value;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Inserts value at index, shifting the elements of the shortest side.
+     */
+    public void insertInt(int index, int value) {
+        Objects.checkIndex(index, size + 1);
+        if (index == 0) {
+            addFirstInt(value);
+            return;
+        }
+        ensureCapacity(size + 1);
+        if (index < size / 2) {
+            head = (head - 1) & (elements.length - 1);
+            for (int i = 0; i < index; i++) {
+                elements[physical(i)] = elements[physical(i + 1)];
+            }
+        } else {
+            for (int i = size; i > index; i--) {
+                elements[physical(i)] = elements[physical(i - 1)];
+            }
+        }
+        elements[physical(index)] = value;
+        size++;
+        modCount++;
+    }
+
+    public int getFirstInt() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elements[head];
+    }
+
+    public int getLastInt() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elements[physical(size - 1)];
+    }
+
+    public int removeFirstInt() {
+        int first = getFirstInt();
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        modCount++;
+        return first;
+    }
+
+    public int removeLastInt() {
+        int last = getLastInt();
+        size--;
+        modCount++;
+        return last;
+    }
+
+    /**
+     * Removes the element at index, shifting the elements of the shortest side.
+     */
+    public int removeAtInt(int index) {
+        Objects.checkIndex(index, size);
+        int removed = elements[physical(index)];
+        if (index < size / 2) {
+            for (int i = index; i > 0; i--) {
+                elements[physical(i)] = elements[physical(i - 1)];
+            }
+            head = (head + 1) & (elements.length - 1);
+        } else {
+            for (int i = index; i < size - 1; i++) {
+                elements[physical(i)] = elements[physical(i + 1)];
+            }
+        }
+        size--;
+        modCount++;
+        return removed;
+    }
+
+    public int indexOfInt(int value) {
+        for (int i = 0; i < size; i++) {
+            if (elements[physical(i)] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean containsInt(int value) {
+        return indexOfInt(value) >= 0;
+    }
+
+    public int[] toIntArray() {
+        return copyElements(size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        head = 0;
+        size = 0;
+        modCount++;
+    }
+
+    // Boxed List / SequencedCollection methods, delegating to the primitive ones.
+
+    @Override
+    public Integer get(int index) {
+        return getInt(index);
+    }
+
+    @Override
+    public Integer set(int index, Integer element) {
+        return setInt(index, element);
+    }
+
+    @Override
+    public boolean add(Integer element) {
+        addLastInt(element);
+        return true;
+    }
+
+    @Override
+    public void add(int index, Integer element) {
+        insertInt(index, element);
+    }
+
+    @Override
+    public Integer remove(int index) {
+        return removeAtInt(index);
+    }
+
+    @Override
+    public void addFirst(Integer element) {
+        addFirstInt(element);
+    }
+
+    @Override
+    public void addLast(Integer element) {
+        addLastInt(element);
+    }
+
+    @Override
+    public Integer getFirst() {
+        return getFirstInt();
+    }
+
+    @Override
+    public Integer getLast() {
+        return getLastInt();
+    }
+
+    @Override
+    public Integer removeFirst() {
+        return removeFirstInt();
+    }
+
+    @Override
+    public Integer removeLast() {
+        return removeLastInt();
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return o instanceof Integer value ? indexOfInt(value) : -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toIntArray());
+    }
+}
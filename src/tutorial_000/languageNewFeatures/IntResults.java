@@ -0,0 +1,87 @@
+package tutorial_000.languageNewFeatures;
+
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Primitive counterpart of invokeAll for IntCallable tasks.
+ *
+ * Instead of returning one Future<Integer> per task, the result of the task at index i is written into slot i of a
+ * preallocated int[] (or of an IntBuffer, which may be a direct buffer outside of the heap). No Integer, no Future and
+ * no result list are allocated : the only remaining allocation per task is the Runnable submitted to the executor.
+ */
+public final class IntResults {
+
+    @FunctionalInterface
+    private interface Slots {
+        void set(int index, int value);
+    }
+
+    private IntResults() {}
+
+    public static void invokeAll(Executor executor, List<? extends IntCallable> tasks, int[] results) throws InterruptedException, ExecutionException {
+        checkCapacity(tasks.size(), results.length);
+        invokeAll(executor, tasks, (index, value) -> results[index] = value);
+    }
+
+    public static void invokeAll(Executor executor, List<? extends IntCallable> tasks, IntBuffer results) throws InterruptedException, ExecutionException {
+        checkCapacity(tasks.size(), results.limit());
+        invokeAll(executor, tasks, results::put);
+    }
+
+    /**
+     * Flyweight variant : the single task definition is applied to every index of [0, tasksNumber[, and each task is
+     * created on demand while submitting instead of being stored up front.
+     */
+    public static void invokeRange(Executor executor, int tasksNumber, IndexedIntCallable task, int[] results) throws InterruptedException, ExecutionException {
+        checkCapacity(tasksNumber, results.length);
+        invokeAll(executor, tasksNumber, task, (index, value) -> results[index] = value);
+    }
+
+    public static long sum(int[] results, int length) {
+        long sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += results[i];
+        }
+        return sum;
+    }
+
+    private static void checkCapacity(int tasksNumber, int capacity) {
+        if (capacity < tasksNumber) {
+            throw new IllegalArgumentException("Not enough result slots : " + capacity + " for " + tasksNumber + " tasks");
+        }
+    }
+
+    private static void invokeAll(Executor executor, List<? extends IntCallable> tasks, Slots slots) throws InterruptedException, ExecutionException {
+        invokeAll(executor, tasks.size(), index -> tasks.get(index).callAsInt(), slots);
+    }
+
+    private static void invokeAll(Executor executor, int tasksNumber, IndexedIntCallable tasks, Slots slots) throws InterruptedException, ExecutionException {
+        CountDownLatch done = new CountDownLatch(tasksNumber);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        for (int i = 0; i < tasksNumber; i++) {
+            int index = i;
+            executor.execute(() -> {
+                try {
+                    slots.set(index, tasks.callAsInt(index));
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        // The latch also makes the slots written by the tasks visible to the calling thread.
+        done.await();
+
+        if (failure.get() != null) {
+            throw new ExecutionException(failure.get());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package tutorial_000.languageNewFeatures;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the boxed result path of executeVirtualThreads (invokeAll + Future<Integer>) with IntResults, writing into
+ * an int[] or a direct IntBuffer. Tasks do not block, so that the cost of the result path is not hidden by sleeps.
+ * Run it with the GC profiler to see the allocation per operation :
+ *   java -jar target/benchmarks.jar IntResultsBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class IntResultsBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int tasksNumber;
+
+    private List<Task> tasks;
+    private int[] results;
+    private IntBuffer offHeapResults;
+
+    @Setup(Level.Trial)
+    public void createTasks() {
+        tasks = new ArrayList<>(tasksNumber);
+        for (int i = 0; i < tasksNumber; i++) {
+            tasks.add(new Task(i, 0));
+        }
+        results = new int[tasksNumber];
+        offHeapResults = ByteBuffer.allocateDirect(tasksNumber * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    @Benchmark
+    public long boxedFutures() throws InterruptedException, ExecutionException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> futures = executor.invokeAll(tasks);
+
+            long sum = 0;
+            for (Future<Integer> future : futures) {
+                sum += future.get();
+            }
+            return sum;
+        }
+    }
+
+    @Benchmark
+    public long intArray() throws InterruptedException, ExecutionException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            IntResults.invokeAll(executor, tasks, results);
+            return IntResults.sum(results, tasksNumber);
+        }
+    }
+
+    @Benchmark
+    public long offHeapIntBuffer() throws InterruptedException, ExecutionException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            IntResults.invokeAll(executor, tasks, offHeapResults);
+
+            long sum = 0;
+            for (int i = 0; i < tasksNumber; i++) {
+                sum += offHeapResults.get(i);
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram, in the spirit of HdrHistogram.
+ *
+ * Values (in nanoseconds) are counted in log-linear buckets : values below 128 have their own bucket, then each power of
+ * two is split into 64 sub-buckets, so any recorded value is known with a relative error below 1.6 %, from 1 ns up to
+ * Long.MAX_VALUE, in a fixed array of 3 712 counters.
+ *
+ * To avoid contention, counters are striped : each recording thread increments the stripe chosen from its thread id,
+ * and snapshot() merges every stripe. As a million virtual threads cannot each own a recorder, stripes play the role of
+ * per-thread recorders : their number is fixed (a few per processor), and two threads rarely share one at the same time.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT;
+
+    // One extra slot per stripe holds its maximum value.
+    private static final int MAX_SLOT = BUCKET_COUNT;
+    private static final int STRIPE_LENGTH = BUCKET_COUNT + 1;
+
+    private final int stripeMask;
+    private final AtomicLongArray stripes;
+
+    public LatencyHistogram() {
+        int stripeCount = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1;
+        this.stripeMask = stripeCount - 1;
+        this.stripes = new AtomicLongArray(stripeCount * STRIPE_LENGTH);
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        int offset = (int) (Thread.currentThread().threadId() & stripeMask) * STRIPE_LENGTH;
+        stripes.getAndIncrement(offset + bucketIndex(value));
+
+        int maxIndex = offset + MAX_SLOT;
+        long max = stripes.get(maxIndex);
+        while (value > max && !stripes.compareAndSet(maxIndex, max, value)) {
+            max = stripes.get(maxIndex);
+        }
+    }
+
+    /**
+     * Merges every stripe. Meant to be called once recording threads are done : values recorded during the merge may
+     * or may not be part of the snapshot.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long totalCount = 0;
+        long max = 0;
+        for (int offset = 0; offset < stripes.length(); offset += STRIPE_LENGTH) {
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                long count = stripes.get(offset + bucket);
+                counts[bucket] += count;
+                totalCount += count;
+            }
+            max = Math.max(max, stripes.get(offset + MAX_SLOT));
+        }
+        return new Snapshot(counts, totalCount, max);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // shift >= 1 brings value into [64, 128[.
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift) - SUB_BUCKET_HALF_COUNT;
+    }
+
+    /**
+     * Highest value counted in the given bucket.
+     */
+    static long highestValue(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKET_COUNT) {
+            return bucketIndex;
+        }
+        int shift = (bucketIndex - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+        long subBucket = (bucketIndex - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    public record Snapshot(long[] counts, long totalCount, long maxNanos) {
+
+        /**
+         * Value (in nanoseconds) below which the given percentage (0 to 100) of the recorded values fall.
+         */
+        public long valueAtPercentile(double percentile) {
+            if (totalCount == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+            long seen = 0;
+            for (int bucket = 0; bucket < counts.length; bucket++) {
+                seen += counts[bucket];
+                if (seen >= rank) {
+                    return Math.min(highestValue(bucket), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+
+        public String summary() {
+            return String.format("count = %d; p50 = %.3f ms; p90 = %.3f ms; p99 = %.3f ms; p99.9 = %.3f ms; max = %.3f ms",
+                    totalCount, millis(valueAtPercentile(50)), millis(valueAtPercentile(90)), millis(valueAtPercentile(99)),
+                    millis(valueAtPercentile(99.9)), millis(maxNanos));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * List of long values, stored without boxing in a circular long[] : besides indexed access, addFirst, addLast, removeFirst
+ * and removeLast all run in constant (amortized) time, like in an ArrayDeque.
+ *
+ * As a List, it is a SequencedCollection<Long> : the boxed methods (getFirst(), addFirst(Long), reversed()...) are
+ * available for interoperability, and each has a primitive counterpart (getFirstLong(), addFirstLong(long)...) for hot paths.
+ * reversed() is the O(1) reverse-ordered view provided by List : changes to the view write through to this list.
+ */
+public class LongList extends AbstractList<Long> implements RandomAccess {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Length is a power of two, so that physical indexes wrap with a mask.
+    private long[] elements;
+    private int head;
+    private int size;
+
+    public LongList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity : " + initialCapacity);
+        }
+        elements = new long[Math.max(2, Integer.highestOneBit(Math.max(1, initialCapacity) - 1) << 1)];
+    }
+
+    public static LongList of(long... values) {
+        LongList list = new LongList(values.length);
+        for (long value : values) {
+            list.addLastLong(value);
+        }
+        return list;
+    }
+
+    private int physical(int index) {
+        return (head + index) & (elements.length - 1);
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity <= elements.length) {
+            return;
+        }
+        int newLength = elements.length << 1;
+        if (newLength <= 0) {
+            throw new OutOfMemoryError("LongList too large");
+        }
+        elements = copyElements(newLength);
+        head = 0;
+    }
+
+    private long[] copyElements(int length) {
+        long[] copy = new long[length];
+        int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, copy, 0, firstPart);
+        System.arraycopy(elements, 0, copy, firstPart, size - firstPart);
+        return copy;
+    }
+
+    public long getLong(int index) {
+        Objects.checkIndex(index, size);
+        return elements[physical(index)];
+    }
+
+    public long setLong(int index, long value) {
+        Objects.checkIndex(index, size);
+        int physical = physical(index);
+        long previous = elements[physical];
+        elements[physical] = value;
+        return previous;
+    }
+
+    public void addFirstLong(long value) {
+        ensureCapacity(size + 1);
+        head = (head - 1) & (elements.length - 1);
+        elements[head] = value;
+        size++;
+        modCount++;
+    }
+
+    public void addLastLong(long value) {
+        ensureCapacity(size + 1);
+        elements[physical(size)] = value;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Inserts value at index, shifting the elements of the shortest side.
+     */
+    public void insertLong(int index, long value) {
+        Objects.checkIndex(index, size + 1);
+        if (index == 0) {
+            addFirstLong(value);
+            return;
+        }
+        ensureCapacity(size + 1);
+        if (index < size / 2) {
+            head = (head - 1) & (elements.length - 1);
+            for (int i = 0; i < index; i++) {
+                elements[physical(i)] = elements[physical(i + 1)];
+            }
+        } else {
+            for (int i = size; i > index; i--) {
+                elements[physical(i)] = elements[physical(i - 1)];
+            }
+        }
+        elements[physical(index)] = value;
+        size++;
+        modCount++;
+    }
+
+    public long getFirstLong() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elements[head];
+    }
+
+    public long getLastLong() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elements[physical(size - 1)];
+    }
+
+    public long removeFirstLong() {
+        long first = getFirstLong();
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        modCount++;
+        return first;
+    }
+
+    public long removeLastLong() {
+        long last = getLastLong();
+        size--;
+        modCount++;
+        return last;
+    }
+
+    /**
+     * Removes the element at index, shifting the elements of the shortest side.
+     */
+    public long removeAtLong(int index) {
+        Objects.checkIndex(index, size);
+        long removed = elements[physical(index)];
+        if (index < size / 2) {
+            for (int i = index; i > 0; i--) {
+                elements[physical(i)] = elements[physical(i - 1)];
+            }
+            head = (head + 1) & (elements.length - 1);
+        } else {
+            for (int i = index; i < size - 1; i++) {
+                elements[physical(i)] = elements[physical(i + 1)];
+            }
+        }
+        size--;
+        modCount++;
+        return removed;
+    }
+
+    public int indexOfLong(long value) {
+        for (int i = 0; i < size; i++) {
+            if (elements[physical(i)] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean containsLong(long value) {
+        return indexOfLong(value) >= 0;
+    }
+
+    public long[] toLongArray() {
+        return copyElements(size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        head = 0;
+        size = 0;
+        modCount++;
+    }
+
+    // Boxed List / SequencedCollection methods, delegating to the primitive ones.
+
+    @Override
+    public Long get(int index) {
+        return getLong(index);
+    }
+
+    @Override
+    public Long set(int index, Long element) {
+        return setLong(index, element);
+    }
+
+    @Override
+    public boolean add(Long element) {
+        addLastLong(element);
+        return true;
+    }
+
+    @Override
+    public void add(int index, Long element) {
+        insertLong(index, element);
+    }
+
+    @Override
+    public Long remove(int index) {
+        return removeAtLong(index);
+    }
+
+    @Override
+    public void addFirst(Long element) {
+        addFirstLong(element);
+    }
+
+    @Override
+    public void addLast(Long element) {
+        addLastLong(element);
+    }
+
+    @Override
+    public Long getFirst() {
+        return getFirstLong();
+    }
+
+    @Override
+    public Long getLast() {
+        return getLastLong();
+    }
+
+    @Override
+    public Long removeFirst() {
+        return removeFirstLong();
+    }
+
+    @Override
+    public Long removeLast() {
+        return removeLastLong();
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return o instanceof Long value ? indexOfLong(value) : -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toLongArray());
+    }
+}
@@ -0,0 +1,294 @@
+package tutorial_000.languageNewFeatures;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request/response TCP server on the loopback interface, standing for a service waiting on its own dependencies
+ * (database, API...) : each request is a message of MESSAGE_BYTES bytes, echoed back after serviceMillis.
+ *
+ * Connections are served in one of two styles :
+ * - blocking(kind, ...) : an acceptor thread hands each connection to an executor of the given ExecutorKind, and the
+ *   connection is served with blocking socket streams, sleeping serviceMillis per request. With VIRTUAL_PER_TASK, each
+ *   connection gets its own virtual thread ; with FIXED_POOL, at most 100 connections are served at a time, the next
+ *   ones waiting for one of them to close.
+ * - selector(...) : a single thread serves every connection with non-blocking channels and a Selector, delaying the
+ *   responses with a queue of due times instead of sleeping.
+ *
+ * LoopbackServerHarness measures the three against a load generator.
+ */
+public final class LoopbackServer implements AutoCloseable {
+
+    public static final int MESSAGE_BYTES = Long.BYTES;
+
+    private static final int BACKLOG = 65_535;
+
+    private final Closeable closer;
+    private final InetSocketAddress address;
+    private final Thread thread;
+
+    private LoopbackServer(Closeable closer, InetSocketAddress address, Thread thread) {
+        this.closer = closer;
+        this.address = address;
+        this.thread = thread;
+    }
+
+    /**
+     * Server serving each connection with blocking sockets, in a task of an executor of the given kind.
+     */
+    public static LoopbackServer blocking(ExecutorKind kind, long serviceMillis) throws IOException {
+        ServerSocket serverSocket = new ServerSocket(0, BACKLOG, InetAddress.getLoopbackAddress());
+        ExecutorService executor = kind.newExecutor();
+        // Platform threads blocked on a socket read are not interrupted by shutdownNow() : close() closes the sockets.
+        Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+        Thread acceptor = Thread.ofPlatform().name("acceptor").start(() -> {
+            while (true) {
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (IOException e) {
+                    if (serverSocket.isClosed()) {
+                        return;
+                    }
+                    throw new UncheckedIOException(e);
+                }
+                sockets.add(socket);
+                try {
+                    executor.execute(() -> {
+                        try {
+                            serve(socket, serviceMillis);
+                        } finally {
+                            sockets.remove(socket);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // Accepted while closing.
+                    try {
+                        socket.close();
+                    } catch (IOException closeException) {
+                        // Nothing more to release.
+                    }
+                    return;
+                }
+            }
+        });
+        Closeable closer = () -> {
+            serverSocket.close();
+            executor.shutdownNow();
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        };
+        return new LoopbackServer(closer, (InetSocketAddress) serverSocket.getLocalSocketAddress(), acceptor);
+    }
+
+    private static void serve(Socket socket, long serviceMillis) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+            byte[] message = new byte[MESSAGE_BYTES];
+            while (in.readNBytes(message, 0, MESSAGE_BYTES) == MESSAGE_BYTES) {
+                if (serviceMillis > 0) {
+                    Thread.sleep(serviceMillis);
+                }
+                out.write(message);
+            }
+        } catch (SocketException | EOFException e) {
+            // Connection closed by the client.
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Server serving every connection from a single thread, with a Selector.
+     */
+    public static LoopbackServer selector(long serviceMillis) throws IOException {
+        ServerSocketChannel serverChannel = ServerSocketChannel.open();
+        Selector selector = Selector.open();
+        try {
+            serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), BACKLOG);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            selector.close();
+            serverChannel.close();
+            throw e;
+        }
+        EventLoop loop = new EventLoop(selector, serviceMillis);
+        Thread thread = Thread.ofPlatform().name("event-loop").start(loop);
+        return new LoopbackServer(loop::stop, (InetSocketAddress) serverChannel.getLocalAddress(), thread);
+    }
+
+    /**
+     * Per connection state of the event loop : the message being read, then written back.
+     */
+    private static final class Connection {
+        final SocketChannel channel;
+        final ByteBuffer buffer = ByteBuffer.allocate(MESSAGE_BYTES);
+        long dueNanos;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private static final class EventLoop implements Runnable {
+        private final Selector selector;
+        private final long serviceNanos;
+        // Connections whose message is read, by due time of their response.
+        private final PriorityQueue<Connection> delayed = new PriorityQueue<>((a, b) -> Long.compare(a.dueNanos, b.dueNanos));
+        private volatile boolean stopped;
+
+        EventLoop(Selector selector, long serviceMillis) {
+            this.selector = selector;
+            this.serviceNanos = TimeUnit.MILLISECONDS.toNanos(serviceMillis);
+        }
+
+        void stop() {
+            stopped = true;
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try (selector) {
+                while (!stopped) {
+                    Connection next = delayed.peek();
+                    if (next == null) {
+                        selector.select();
+                    } else {
+                        long waitNanos = next.dueNanos - System.nanoTime();
+                        if (waitNanos > 0) {
+                            selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+                        } else {
+                            selector.selectNow();
+                        }
+                    }
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        handle(key);
+                    }
+                    selector.selectedKeys().clear();
+                    long now = System.nanoTime();
+                    while (!delayed.isEmpty() && delayed.peek().dueNanos - now <= 0) {
+                        respond(delayed.poll());
+                    }
+                }
+                // Closes the server channel and every connection.
+                for (SelectionKey key : selector.keys()) {
+                    close(key);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void handle(SelectionKey key) throws IOException {
+            if (!key.isValid()) {
+                return;
+            }
+            if (key.isAcceptable()) {
+                SocketChannel channel;
+                while ((channel = ((ServerSocketChannel) key.channel()).accept()) != null) {
+                    channel.configureBlocking(false);
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                    channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+                }
+            } else if (key.isReadable()) {
+                Connection connection = (Connection) key.attachment();
+                if (!read(connection)) {
+                    close(key);
+                } else if (!connection.buffer.hasRemaining()) {
+                    // Stops reading until the response is written.
+                    key.interestOps(0);
+                    connection.buffer.flip();
+                    connection.dueNanos = System.nanoTime() + serviceNanos;
+                    delayed.add(connection);
+                }
+            } else if (key.isWritable()) {
+                write((Connection) key.attachment(), key);
+            }
+        }
+
+        private static boolean read(Connection connection) {
+            try {
+                return connection.channel.read(connection.buffer) >= 0;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        private void respond(Connection connection) {
+            SelectionKey key = connection.channel.keyFor(selector);
+            if (key != null && key.isValid()) {
+                write(connection, key);
+            }
+        }
+
+        private void write(Connection connection, SelectionKey key) {
+            try {
+                connection.channel.write(connection.buffer);
+            } catch (IOException e) {
+                close(key);
+                return;
+            }
+            if (connection.buffer.hasRemaining()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+            } else {
+                connection.buffer.clear();
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        private static void close(SelectionKey key) {
+            key.cancel();
+            try {
+                key.channel().close();
+            } catch (IOException e) {
+                // Nothing more to release.
+            }
+        }
+    }
+
+    public InetSocketAddress address() {
+        return address;
+    }
+
+    /**
+     * Stops accepting connections, and closes the open ones. If interrupted while waiting for the server thread to stop,
+     * returns with the interrupt flag set.
+     */
+    @Override
+    public void close() throws IOException {
+        closer.close();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
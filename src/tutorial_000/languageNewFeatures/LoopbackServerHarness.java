@@ -0,0 +1,248 @@
+package tutorial_000.languageNewFeatures;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures LoopbackServer in its three styles (blocking sockets on a FIXED_POOL of 100 platform threads, blocking
+ * sockets on VIRTUAL_PER_TASK threads, and a single NIO_SELECTOR thread), for increasing numbers of concurrent
+ * connections.
+ *
+ * Each server runs in its own forked JVM, so that its resident memory (RSS) and thread count are its own. This JVM is
+ * the load generator : one virtual thread per connection sends a request, waits for its response and starts again,
+ * for a warm-up then a measured period. For each run it prints :
+ * - the requests per second completed during the measured period.
+ * - the p50, p99 and max latency of the requests. Requests still waiting for their response at the end are counted
+ *   with their age at that time.
+ * - the starved connections, which completed no request during the measured period. A connection a FIXED_POOL server
+ *   never gets to serve adds a single sample to the latencies, against hundreds for a served one, so that it barely
+ *   moves the percentiles : starved and max show it instead.
+ * - the RSS and the thread count of the server JVM at the end of the measured period (read from /proc, so Linux only).
+ *
+ * Beyond 20 000 connections, client sockets are bound to 127.0.0.2, 127.0.0.3... so that each source address has its
+ * own range of ephemeral ports (Linux routes the whole 127.0.0.0/8 to the loopback interface). Both JVMs need more file
+ * descriptors than connections (ulimit -n) : connections failing to open are counted in the failed column. The load
+ * generator shares the machine with the server, so compare the styles with each other rather than the absolute
+ * numbers with a remote client. Usage :
+ *   java -cp target/classes tutorial_000.languageNewFeatures.LoopbackServerHarness [seconds] [serviceMillis] [connections...]
+ */
+public class LoopbackServerHarness {
+
+    private static final String SERVER = "server";
+    private static final String PORT = "PORT";
+
+    private static final int WARMUP_SECONDS = 2;
+    private static final int CONNECTIONS_PER_SOURCE = 20_000;
+    private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+
+    public enum Style {
+        FIXED_POOL, VIRTUAL_PER_TASK, NIO_SELECTOR;
+
+        LoopbackServer start(long serviceMillis) throws IOException {
+            return switch (this) {
+                case FIXED_POOL -> LoopbackServer.blocking(ExecutorKind.FIXED_POOL, serviceMillis);
+                case VIRTUAL_PER_TASK -> LoopbackServer.blocking(ExecutorKind.VIRTUAL_PER_TASK, serviceMillis);
+                case NIO_SELECTOR -> LoopbackServer.selector(serviceMillis);
+            };
+        }
+    }
+
+    private record Result(long failed, long starved, double requestsPerSecond, LatencyHistogram.Snapshot latencies, long rssKiloBytes, long threads) {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals(SERVER)) {
+            runServer(Style.valueOf(args[1]), Long.parseLong(args[2]));
+            return;
+        }
+
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        long serviceMillis = args.length > 1 ? Long.parseLong(args[1]) : 10;
+        int[] connectionCounts = args.length > 2
+                ? Arrays.stream(args, 2, args.length).mapToInt(Integer::parseInt).toArray()
+                : new int[] { 1_000, 10_000, 100_000 };
+
+        System.out.printf("Loopback request/response for %d s (+%d s warm-up), %d ms of service time per request, on %d processors.%n",
+                seconds, WARMUP_SECONDS, serviceMillis, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%16s | %11s | %7s | %7s | %12s | %10s | %10s | %10s | %8s | %7s%n",
+                "style", "connections", "failed", "starved", "requests/s", "p50 (ms)", "p99 (ms)", "max (ms)", "RSS (MB)", "threads");
+        System.out.println("-".repeat(123));
+        for (int connections : connectionCounts) {
+            for (Style style : Style.values()) {
+                Result result = fork(style, serviceMillis, connections, seconds);
+                System.out.printf("%16s | %11d | %7d | %7d | %12.0f | %10.1f | %10.1f | %10.1f | %8s | %7s%n",
+                        style, connections, result.failed(), result.starved(), result.requestsPerSecond(),
+                        result.latencies().valueAtPercentile(50) / 1_000_000.0,
+                        result.latencies().valueAtPercentile(99) / 1_000_000.0,
+                        result.latencies().maxNanos() / 1_000_000.0,
+                        result.rssKiloBytes() < 0 ? "n/a" : String.valueOf(result.rssKiloBytes() / 1024),
+                        result.threads() < 0 ? "n/a" : String.valueOf(result.threads()));
+            }
+        }
+    }
+
+    /**
+     * Starts a server of the given style in a new JVM, loads it, and stops it by closing its standard input.
+     */
+    private static Result fork(Style style, long serviceMillis, int connections, int seconds) throws Exception {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                LoopbackServerHarness.class.getName(), SERVER, style.name(), String.valueOf(serviceMillis))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line = reader.readLine();
+            if (line == null || !line.startsWith(PORT)) {
+                throw new IllegalStateException("Server failed to start for " + style);
+            }
+            InetSocketAddress server = new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(line.substring(PORT.length()).trim()));
+            return load(server, connections, seconds, process.pid());
+        } finally {
+            process.getOutputStream().close();
+            if (process.waitFor() != 0) {
+                throw new IllegalStateException("Server failed for " + style + " and " + connections + " connections");
+            }
+        }
+    }
+
+    private static void runServer(Style style, long serviceMillis) throws Exception {
+        try (LoopbackServer server = style.start(serviceMillis)) {
+            System.out.println(PORT + " " + server.address().getPort());
+            System.out.flush();
+            // Serves until the harness closes the standard input.
+            System.in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private static Result load(InetSocketAddress server, int connections, int seconds, long serverPid) throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        LongAdder requests = new LongAdder();
+        LongAdder failed = new LongAdder();
+        // Start time of the request waiting for its response on each connection, or 0.
+        AtomicLongArray inFlightSince = new AtomicLongArray(connections);
+        // Requests completed during the measured period on each connection, each written by its own client thread.
+        int[] completed = new int[connections];
+        Socket[] sockets = new Socket[connections];
+        CountDownLatch connected = new CountDownLatch(connections);
+        LoadState state = new LoadState();
+
+        long start;
+        long end;
+        long rss;
+        long threads;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                int index = i;
+                clients.execute(() -> {
+                    Socket socket = new Socket();
+                    try {
+                        if (connections > CONNECTIONS_PER_SOURCE) {
+                            int source = 1 + index / CONNECTIONS_PER_SOURCE;
+                            socket.bind(new InetSocketAddress(InetAddress.getByAddress(new byte[] { 127, 0, 0, (byte) source }), 0));
+                        }
+                        socket.connect(server, CONNECT_TIMEOUT_MILLIS);
+                        socket.setTcpNoDelay(true);
+                        sockets[index] = socket;
+                    } catch (IOException e) {
+                        failed.increment();
+                        // Bind or connect failed : the harness runs at the file descriptor limit.
+                        try {
+                            socket.close();
+                        } catch (IOException closeException) {
+                            // Nothing more to release.
+                        }
+                        return;
+                    } finally {
+                        connected.countDown();
+                    }
+                    try (socket) {
+                        InputStream in = socket.getInputStream();
+                        OutputStream out = socket.getOutputStream();
+                        byte[] message = new byte[LoopbackServer.MESSAGE_BYTES];
+                        while (!state.stopped) {
+                            long requestStart = System.nanoTime();
+                            inFlightSince.set(index, requestStart);
+                            out.write(message);
+                            if (in.readNBytes(message, 0, message.length) < message.length) {
+                                break;
+                            }
+                            long requestEnd = System.nanoTime();
+                            inFlightSince.set(index, 0);
+                            if (state.measuring) {
+                                histogram.record(requestEnd - requestStart);
+                                requests.increment();
+                                completed[index]++;
+                            }
+                        }
+                    } catch (IOException e) {
+                        // Closed at the end of the run.
+                    }
+                });
+            }
+            connected.await();
+            Thread.sleep(WARMUP_SECONDS * 1000L);
+            state.measuring = true;
+            start = System.nanoTime();
+            Thread.sleep(seconds * 1000L);
+            state.measuring = false;
+            state.stopped = true;
+            end = System.nanoTime();
+            rss = procStatus(serverPid, "VmRSS");
+            threads = procStatus(serverPid, "Threads");
+            for (int i = 0; i < connections; i++) {
+                long since = inFlightSince.get(i);
+                // A client that read stopped just before it was set may have started a request after end.
+                if (since != 0 && since - end < 0) {
+                    histogram.record(end - since);
+                }
+            }
+            for (Socket socket : sockets) {
+                if (socket != null) {
+                    socket.close();
+                }
+            }
+        }
+        // Read once every client thread has ended, when the executor is closed.
+        long starved = 0;
+        for (int i = 0; i < connections; i++) {
+            if (sockets[i] != null && completed[i] == 0) {
+                starved++;
+            }
+        }
+        return new Result(failed.sum(), starved, requests.sum() * 1_000_000_000.0 / (end - start), histogram.snapshot(), rss, threads);
+    }
+
+    private static final class LoadState {
+        volatile boolean measuring;
+        volatile boolean stopped;
+    }
+
+    /**
+     * Numeric value of a field of /proc/[pid]/status (in kB for memory fields), or -1 where there is no /proc.
+     */
+    private static long procStatus(long pid, String field) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith(field + ":")) {
+                return Long.parseLong(line.substring(field.length() + 1).replace("kB", "").trim());
+            }
+        }
+        return -1;
+    }
+}
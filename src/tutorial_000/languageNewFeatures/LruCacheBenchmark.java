@@ -0,0 +1,82 @@
+package tutorial_000.languageNewFeatures;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention benchmark of StripedLruCache against a synchronized access-ordered LinkedHashMap. Each operation reads a
+ * random key among twice as many keys as the cache holds, and puts it on a miss (about 50 % hits).
+ *
+ * The main method runs it from 1 to 64 threads :
+ *   java -cp target/benchmarks.jar tutorial_000.languageNewFeatures.LruCacheBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LruCacheBenchmark {
+
+    private static final int CAPACITY = 100_000;
+    private static final int KEYS = CAPACITY * 2;
+
+    private StripedLruCache<Integer, Integer> stripedCache;
+    private Map<Integer, Integer> synchronizedCache;
+
+    @Setup(Level.Trial)
+    public void createCaches() {
+        stripedCache = new StripedLruCache<>(CAPACITY);
+        synchronizedCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                return size() > CAPACITY;
+            }
+        });
+        for (int key = 0; key < CAPACITY; key++) {
+            stripedCache.put(key, key);
+            synchronizedCache.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public Integer stripedLruCache() {
+        Integer key = ThreadLocalRandom.current().nextInt(KEYS);
+        Integer value = stripedCache.get(key);
+        if (value == null) {
+            stripedCache.put(key, key);
+            return key;
+        }
+        return value;
+    }
+
+    @Benchmark
+    public Integer synchronizedLinkedHashMap() {
+        Integer key = ThreadLocalRandom.current().nextInt(KEYS);
+        Integer value = synchronizedCache.get(key);
+        if (value == null) {
+            synchronizedCache.put(key, key);
+            return key;
+        }
+        return value;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[] { 1, 2, 4, 8, 16, 32, 64 }) {
+            Options options = new OptionsBuilder()
+                    .include(LruCacheBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
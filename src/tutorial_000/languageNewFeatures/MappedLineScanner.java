@@ -0,0 +1,255 @@
+package tutorial_000.languageNewFeatures;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Line scanner of big UTF-8 (or ASCII) text files, mapped in memory instead of being read and decoded into Strings.
+ *
+ * The file is split into chunks ending at a line feed, so that no line crosses two chunks : countLines() and
+ * countLinesContaining() scan the chunks in parallel, each task searching the raw bytes of its chunk. As UTF-8 encodes
+ * no character with the bytes of another one, searching the UTF-8 bytes of a string finds exactly its occurrences.
+ *
+ * indexOf(byte, begin, end) and indexOf(String, begin, end) follow the contract of the range-bounded String.indexOf
+ * methods of java 21 on file offsets : the search is restricted to [begin, end), the result is an absolute offset or
+ * -1, and an invalid range throws an IndexOutOfBoundsException. Bytes are compared eight at a time (a long read from the
+ * mapping), so that a search runs at several GB/s per core once the file is in the OS page cache.
+ *
+ * Lines end at '\n' (a '\r' before it is part of the line) : old Mac files ending lines with '\r' only are seen as a
+ * single line. java.lang.foreign is a preview API in java 21 : run with --enable-preview.
+ */
+public final class MappedLineScanner implements AutoCloseable {
+
+    private static final long MIN_CHUNK_BYTES = 1 << 20;
+    private static final byte LINE_FEED = '\n';
+    private static final ValueLayout.OfLong WORD = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final long size;
+    // Chunk i is [chunkStarts[i], chunkStarts[i + 1]).
+    private final long[] chunkStarts;
+
+    private MappedLineScanner(Arena arena, MemorySegment segment, int chunks) {
+        this.arena = arena;
+        this.segment = segment;
+        this.size = segment.byteSize();
+        this.chunkStarts = chunkStarts(chunks);
+    }
+
+    /**
+     * Maps file, split into enough chunks for the parallelism of the common pool.
+     */
+    public static MappedLineScanner open(Path file) throws IOException {
+        return open(file, ForkJoinPool.getCommonPoolParallelism() * 4);
+    }
+
+    /**
+     * Maps file, split into at most chunks chunks of at least 1 MB.
+     */
+    public static MappedLineScanner open(Path file, int chunks) throws IOException {
+        if (chunks <= 0) {
+            throw new IllegalArgumentException("Chunk count must be positive : " + chunks);
+        }
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            return new MappedLineScanner(arena, segment, chunks);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    private long[] chunkStarts(int chunks) {
+        int count = (int) Math.max(1, Math.min(chunks, size / MIN_CHUNK_BYTES));
+        long[] starts = new long[count + 1];
+        for (int i = 1; i < count; i++) {
+            long lineFeed = indexOf(LINE_FEED, Math.max(starts[i - 1], size / count * i), size);
+            starts[i] = lineFeed < 0 ? size : lineFeed + 1;
+        }
+        starts[count] = size;
+        return starts;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int chunks() {
+        return chunkStarts.length - 1;
+    }
+
+    /**
+     * Offset of the first occurrence of b in [begin, end), or -1.
+     */
+    public long indexOf(byte b, long begin, long end) {
+        Objects.checkFromToIndex(begin, end, size);
+        long index = begin;
+        // SWAR : a byte of word ^ pattern is zero where word holds b, and (x - 0x01..) & ~x & 0x80.. flags the first one.
+        long pattern = LOW_BITS * (b & 0xFF);
+        for (; index + Long.BYTES <= end; index += Long.BYTES) {
+            long x = segment.get(WORD, index) ^ pattern;
+            long found = (x - LOW_BITS) & ~x & HIGH_BITS;
+            if (found != 0) {
+                return index + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; index < end; index++) {
+            if (segment.get(ValueLayout.JAVA_BYTE, index) == b) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Offset of the first occurrence of the UTF-8 bytes of str entirely in [begin, end), or -1.
+     */
+    public long indexOf(String str, long begin, long end) {
+        return indexOf(MemorySegment.ofArray(str.getBytes(StandardCharsets.UTF_8)), begin, end);
+    }
+
+    private long indexOf(MemorySegment needle, long begin, long end) {
+        Objects.checkFromToIndex(begin, end, size);
+        long length = needle.byteSize();
+        if (length == 0) {
+            return begin;
+        }
+        // Candidates must match two bytes of needle : the first one, and the last one differing from it (" ERROR " is
+        // mostly filtered on its 'R', spaces being frequent). Both are checked for eight candidates at once.
+        byte first = needle.get(ValueLayout.JAVA_BYTE, 0);
+        long anchor = length - 1;
+        while (anchor > 0 && needle.get(ValueLayout.JAVA_BYTE, anchor) == first) {
+            anchor--;
+        }
+        long firstPattern = LOW_BITS * (first & 0xFF);
+        long anchorPattern = LOW_BITS * (needle.get(ValueLayout.JAVA_BYTE, anchor) & 0xFF);
+        long last = end - length;
+        long index = begin;
+        for (; index + anchor + Long.BYTES <= end; index += Long.BYTES) {
+            long x = segment.get(WORD, index) ^ firstPattern;
+            long y = segment.get(WORD, index + anchor) ^ anchorPattern;
+            long candidates = (x - LOW_BITS) & ~x & (y - LOW_BITS) & ~y & HIGH_BITS;
+            while (candidates != 0) {
+                long candidate = index + (Long.numberOfTrailingZeros(candidates) >>> 3);
+                if (candidate <= last && MemorySegment.mismatch(segment, candidate, candidate + length, needle, 0, length) < 0) {
+                    return candidate;
+                }
+                candidates &= candidates - 1;
+            }
+        }
+        for (; index <= last; index++) {
+            if (MemorySegment.mismatch(segment, index, index + length, needle, 0, length) < 0) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Offset following the end of the line holding offset : its '\n' excluded, or the size of the file.
+     */
+    public long lineEnd(long offset) {
+        long lineFeed = indexOf(LINE_FEED, offset, size);
+        return lineFeed < 0 ? size : lineFeed;
+    }
+
+    /**
+     * Decodes the line starting at offset : the only method creating a String.
+     */
+    public String line(long offset) {
+        long end = lineEnd(offset);
+        return new String(segment.asSlice(offset, end - offset).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Number of lines, counted as BufferedReader.lines() does for '\n' line endings.
+     */
+    public long countLines() throws InterruptedException, ExecutionException {
+        return countLines(ForkJoinPool.commonPool());
+    }
+
+    public long countLines(ExecutorService executor) throws InterruptedException, ExecutionException {
+        long lineFeeds = sumOverChunks(executor, (begin, end) -> {
+            long count = 0;
+            for (long index = indexOf(LINE_FEED, begin, end); index >= 0; index = indexOf(LINE_FEED, index + 1, end)) {
+                count++;
+            }
+            return count;
+        });
+        // A last line without line feed is a line too.
+        return size > 0 && segment.get(ValueLayout.JAVA_BYTE, size - 1) != LINE_FEED ? lineFeeds + 1 : lineFeeds;
+    }
+
+    /**
+     * Number of lines holding str, which must not contain a line feed. Every line holds an empty str.
+     */
+    public long countLinesContaining(String str) throws InterruptedException, ExecutionException {
+        return countLinesContaining(str, ForkJoinPool.commonPool());
+    }
+
+    public long countLinesContaining(String str, ExecutorService executor) throws InterruptedException, ExecutionException {
+        if (str.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("Line feed in " + str);
+        }
+        // The search restarts at the next line : an empty str, found at its start offset, would not move forward.
+        MemorySegment needle = MemorySegment.ofArray(str.getBytes(StandardCharsets.UTF_8));
+        return sumOverChunks(executor, (begin, end) -> {
+            long count = 0;
+            for (long index = indexOf(needle, begin, end); index >= 0 && index < end; index = indexOf(needle, index, end)) {
+                count++;
+                // Skips the other occurrences of the same line.
+                index = lineEnd(index) + 1;
+                if (index >= end) {
+                    break;
+                }
+            }
+            return count;
+        });
+    }
+
+    @FunctionalInterface
+    private interface ChunkScan {
+        long scan(long begin, long end);
+    }
+
+    private long sumOverChunks(ExecutorService executor, ChunkScan scan) throws InterruptedException, ExecutionException {
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (int i = 0; i < chunks(); i++) {
+            long begin = chunkStarts[i];
+            long end = chunkStarts[i + 1];
+            tasks.add(() -> scan.scan(begin, end));
+        }
+        long sum = 0;
+        for (Future<Long> result : executor.invokeAll(tasks)) {
+            sum += result.get();
+        }
+        return sum;
+    }
+
+    /**
+     * Unmaps the file : the scanner must not be used anymore.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
@@ -0,0 +1,90 @@
+package tutorial_000.languageNewFeatures;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Compares the throughput (GB/s) of MappedLineScanner with BufferedReader.lines(), counting the lines of a generated
+ * log file, then the lines holding " ERROR ". Each measure is repeated, and the best run is kept : the file is then in
+ * the OS page cache, so that the disk is out of the comparison. Usage :
+ *   java --enable-preview -cp target/classes tutorial_000.languageNewFeatures.MappedLineScannerHarness [megaBytes] [file]
+ * An existing file is scanned as is ; otherwise a file of megaBytes (1024 by default) is generated, and deleted at the
+ * end if it was created in the temporary directory.
+ */
+public class MappedLineScannerHarness {
+
+    private static final int RUNS = 3;
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        long megaBytes = args.length > 0 ? Long.parseLong(args[0]) : 1024;
+        Path file = args.length > 1 ? Path.of(args[1]) : Files.createTempFile("lines", ".log");
+        boolean temporary = args.length <= 1;
+        try {
+            if (temporary || !Files.exists(file)) {
+                generate(file, megaBytes << 20);
+            }
+            long size = Files.size(file);
+            System.out.printf("File %s : %d MB, %d cores.%n", file, size >> 20, Runtime.getRuntime().availableProcessors());
+
+            measure("BufferedReader.lines() count", size, () -> {
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    return reader.lines().count();
+                }
+            });
+            measure("BufferedReader.lines() contains", size, () -> {
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    return reader.lines().filter(line -> line.contains(" ERROR ")).count();
+                }
+            });
+            try (MappedLineScanner scanner = MappedLineScanner.open(file)) {
+                measure("MappedLineScanner.countLines", size, scanner::countLines);
+                measure("MappedLineScanner.countLinesContaining", size, () -> scanner.countLinesContaining(" ERROR "));
+            }
+        } finally {
+            if (temporary) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static void generate(Path file, long bytes) throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] levels = {"DEBUG", "INFO", "WARN", "ERROR"};
+        long written = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            while (written < bytes) {
+                String line = "2023-09-19T10:15:" + (10 + random.nextInt(50)) + "." + random.nextInt(100, 1000) + "Z "
+                        + levels[random.nextInt(levels.length)] + " [worker-" + random.nextInt(16) + "] GET /api/orders/"
+                        + random.nextInt(1_000_000) + " status=" + (random.nextInt(10) == 0 ? 500 : 200)
+                        + " took " + random.nextInt(2000) + "ms – é";
+                writer.write(line);
+                writer.newLine();
+                written += line.getBytes(StandardCharsets.UTF_8).length + System.lineSeparator().length();
+            }
+        }
+    }
+
+    private static void measure(String name, long size, Callable<Long> scan) throws IOException, InterruptedException, ExecutionException {
+        long result = 0;
+        long bestNanos = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long time = System.nanoTime();
+            try {
+                result = scan.call();
+            } catch (IOException | InterruptedException | ExecutionException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ExecutionException(e);
+            }
+            bestNanos = Math.min(bestNanos, System.nanoTime() - time);
+        }
+        System.out.printf("%-40s : %,d lines in %d ms, %.2f GB/s%n", name, result, bestNanos / 1_000_000, (double) size / bestNanos);
+    }
+}
@@ -0,0 +1,99 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.SplittableRandom;
+
+import tutorial_000.languageNewFeatures._003_RecordPatterns.Position;
+
+/**
+ * ParallelClassifier accumulator counting mixed objects per case of a pattern matching switch : long strings, short
+ * strings, integers, longs, positions and anything else, with sums per case.
+ */
+public final class MixedObjectStats implements ParallelClassifier.Accumulator<MixedObjectStats> {
+
+    private long longStrings;
+    private long shortStrings;
+    private long stringsLength;
+    private long integers;
+    private long integersSum;
+    private long longs;
+    private long longsSum;
+    private long positions;
+    private long positionsSumX;
+    private long positionsSumY;
+    private long others;
+
+    @Override
+    public void accept(Object o) {
+        switch (o) {
+            case String s when s.length() > 5 -> {
+                longStrings++;
+                stringsLength += s.length();
+            }
+            case String s -> {
+                shortStrings++;
+                stringsLength += s.length();
+            }
+            case Integer i -> {
+                integers++;
+                integersSum += i;
+            }
+            case Long l -> {
+                longs++;
+                longsSum += l;
+            }
+            case Position(int x, int y) -> {
+                positions++;
+                positionsSumX += x;
+                positionsSumY += y;
+            }
+            default -> others++;
+        }
+    }
+
+    @Override
+    public void merge(MixedObjectStats other) {
+        longStrings += other.longStrings;
+        shortStrings += other.shortStrings;
+        stringsLength += other.stringsLength;
+        integers += other.integers;
+        integersSum += other.integersSum;
+        longs += other.longs;
+        longsSum += other.longsSum;
+        positions += other.positions;
+        positionsSumX += other.positionsSumX;
+        positionsSumY += other.positionsSumY;
+        others += other.others;
+    }
+
+    public long count() {
+        return longStrings + shortStrings + integers + longs + positions + others;
+    }
+
+    @Override
+    public String toString() {
+        return "strings : " + longStrings + " long, " + shortStrings + " short (total length " + stringsLength + ")"
+                + " ; integers : " + integers + " (sum " + integersSum + ")"
+                + " ; longs : " + longs + " (sum " + longsSum + ")"
+                + " ; positions : " + positions + " (sum " + positionsSumX + "/" + positionsSumY + ")"
+                + " ; others : " + others;
+    }
+
+    /**
+     * Random mix of strings, Integer, Long, Position and Double objects.
+     */
+    static Object[] sample(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] words = {"a", "java", "record", "pattern", "matching", "switch"};
+        Object[] objects = new Object[size];
+        for (int i = 0; i < size; i++) {
+            objects[i] = switch (random.nextInt(5)) {
+                case 0 -> words[random.nextInt(words.length)];
+                case 1 -> random.nextInt(1000);
+                case 2 -> random.nextLong(1_000_000);
+                case 3 -> new Position(random.nextInt(100), random.nextInt(100));
+                default -> random.nextDouble();
+            };
+        }
+        return objects;
+    }
+}
@@ -0,0 +1,68 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Task made of three phases, like a real request handler : spin on the CPU (parsing, hashing...), allocate memory
+ * (building objects), then block (waiting for a database or a service). The length of each phase is given by a Profile.
+ */
+public class MixedTask implements Callable<Integer> {
+
+    /**
+     * @param spinMicros     duration of the CPU phase
+     * @param allocatedBytes memory allocated (and touched) by the allocation phase
+     * @param blockingMillis duration of the blocking phase
+     */
+    public record Profile(String name, long spinMicros, int allocatedBytes, long blockingMillis) {
+        public static final Profile PARSING = new Profile("parsing", 2_000, 64 * 1024, 0);
+        public static final Profile HASHING = new Profile("hashing", 5_000, 0, 0);
+        public static final Profile IO = new Profile("io", 100, 4 * 1024, 20);
+
+        /**
+         * Duration of the task when it never waits for a thread.
+         */
+        public long serviceNanos() {
+            return spinMicros * 1_000 + blockingMillis * 1_000_000;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (%d µs CPU, %d KB allocated, %d ms blocking)", name, spinMicros, allocatedBytes / 1024, blockingMillis);
+        }
+    }
+
+    private static final int CHUNK_BYTES = 1024;
+
+    private final int number;
+    private final Profile profile;
+
+    public MixedTask(int number, Profile profile) {
+        this.number = number;
+        this.profile = profile;
+    }
+
+    public Profile profile() {
+        return profile;
+    }
+
+    @Override
+    public Integer call() {
+        int hash = CpuBoundTask.spin(number, profile.spinMicros() * 1_000);
+
+        for (int allocated = 0; allocated < profile.allocatedBytes(); allocated += CHUNK_BYTES) {
+            byte[] chunk = new byte[CHUNK_BYTES];
+            chunk[hash & (CHUNK_BYTES - 1)] = (byte) hash;
+            hash = 31 * hash + chunk[number & (CHUNK_BYTES - 1)];
+        }
+
+        if (profile.blockingMillis() > 0) {
+            try {
+                Thread.sleep(profile.blockingMillis());
+            } catch (InterruptedException e) {
+                System.out.printf("Thread %s - MixedTask %d canceled.%n", Thread.currentThread().getName(), number);
+                return -1;
+            }
+        }
+        return Math.floorMod(hash, 100);
+    }
+}
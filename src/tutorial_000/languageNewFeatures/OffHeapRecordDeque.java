@@ -0,0 +1,544 @@
+package tutorial_000.languageNewFeatures;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SequencedCollection;
+
+/**
+ * Bounded double-ended queue of fixed-width records, stored outside of the heap in a MemorySegment.
+ *
+ * Tens of millions of small objects in an ArrayDeque make each GC cycle longer, whereas here the whole deque is a single
+ * native memory block the GC never scans. Records are ring-buffered : addFirst, addLast, pollFirst and pollLast copy one
+ * record in or out in constant time, and getFirst, getLast, get and iteration return slices of the backing memory
+ * (zero-copy, valid until the record is removed or overwritten).
+ *
+ * The deque is either allocated in native memory (allocate), or mapped to a file (map) : the file holds a small header
+ * (record width, capacity, head and size) followed by the records, so that a mapped deque survives restarts.
+ *
+ * It implements SequencedCollection<MemorySegment>, reversed() being a zero-copy view. contains, remove(Object),
+ * removeAll and retainAll compare the content of records (MemorySegment.equals compares addresses). Iterators support
+ * remove(), and fail with a ConcurrentModificationException when the deque is modified otherwise. It is not
+ * thread-safe, and java.lang.foreign is a preview API in java 21 : run with --enable-preview.
+ */
+public final class OffHeapRecordDeque extends AbstractCollection<MemorySegment> implements SequencedCollection<MemorySegment>, AutoCloseable {
+
+    private static final long MAGIC = 0x4F4844455155455EL;
+    private static final long MAGIC_OFFSET = 0;
+    private static final long RECORD_BYTES_OFFSET = 8;
+    private static final long CAPACITY_OFFSET = 16;
+    private static final long HEAD_OFFSET = 24;
+    private static final long SIZE_OFFSET = 32;
+    private static final long HEADER_BYTES = 64;
+
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final MemorySegment records;
+    private final long recordBytes;
+    private final long capacity;
+    private final boolean mapped;
+    private long head;
+    private long size;
+    private int modCount;
+
+    private OffHeapRecordDeque(Arena arena, MemorySegment segment, long recordBytes, long capacity, boolean mapped) {
+        this.arena = arena;
+        this.segment = segment;
+        this.records = segment.asSlice(HEADER_BYTES);
+        this.recordBytes = recordBytes;
+        this.capacity = capacity;
+        this.mapped = mapped;
+    }
+
+    /**
+     * Allocates an empty deque of capacity records of recordBytes each in native memory, freed by close().
+     */
+    public static OffHeapRecordDeque allocate(long recordBytes, long capacity) {
+        checkDimensions(recordBytes, capacity);
+        Arena arena = Arena.ofShared();
+        OffHeapRecordDeque deque = new OffHeapRecordDeque(arena, arena.allocate(HEADER_BYTES + recordBytes * capacity, Long.BYTES),
+                recordBytes, capacity, false);
+        deque.writeHeader();
+        return deque;
+    }
+
+    /**
+     * Maps a deque to file. An existing file is reopened with the records it holds (its record width and capacity must
+     * match), otherwise an empty deque is created. Changes are written to the file by the OS, or explicitly by force().
+     */
+    public static OffHeapRecordDeque map(Path file, long recordBytes, long capacity) throws IOException {
+        checkDimensions(recordBytes, capacity);
+        long fileBytes = HEADER_BYTES + recordBytes * capacity;
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            boolean existing = channel.size() > 0;
+            if (existing && channel.size() != fileBytes) {
+                throw new IOException("File " + file + " holds " + channel.size() + " bytes, " + fileBytes + " expected");
+            }
+            OffHeapRecordDeque deque = new OffHeapRecordDeque(arena, channel.map(FileChannel.MapMode.READ_WRITE, 0, fileBytes, arena),
+                    recordBytes, capacity, true);
+            if (existing) {
+                deque.readHeader(file);
+            } else {
+                deque.writeHeader();
+            }
+            return deque;
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    private static void checkDimensions(long recordBytes, long capacity) {
+        if (recordBytes <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Record width and capacity must be positive : " + recordBytes + ", " + capacity);
+        }
+        Math.multiplyExact(recordBytes, capacity);
+    }
+
+    private void readHeader(Path file) throws IOException {
+        if (segment.get(ValueLayout.JAVA_LONG, MAGIC_OFFSET) != MAGIC
+                || segment.get(ValueLayout.JAVA_LONG, RECORD_BYTES_OFFSET) != recordBytes
+                || segment.get(ValueLayout.JAVA_LONG, CAPACITY_OFFSET) != capacity) {
+            throw new IOException("File " + file + " is not a deque of " + capacity + " records of " + recordBytes + " bytes");
+        }
+        long head = segment.get(ValueLayout.JAVA_LONG, HEAD_OFFSET);
+        long size = segment.get(ValueLayout.JAVA_LONG, SIZE_OFFSET);
+        // A corrupted or half-written header would make offsets negative, or iteration wrap over the same records.
+        if (head < 0 || head >= capacity || size < 0 || size > capacity) {
+            throw new IOException("File " + file + " has a corrupted header : head " + head + ", size " + size + " for capacity " + capacity);
+        }
+        this.head = head;
+        this.size = size;
+    }
+
+    private void writeHeader() {
+        segment.set(ValueLayout.JAVA_LONG, MAGIC_OFFSET, MAGIC);
+        segment.set(ValueLayout.JAVA_LONG, RECORD_BYTES_OFFSET, recordBytes);
+        segment.set(ValueLayout.JAVA_LONG, CAPACITY_OFFSET, capacity);
+        writeState();
+    }
+
+    private void writeState() {
+        segment.set(ValueLayout.JAVA_LONG, HEAD_OFFSET, head);
+        segment.set(ValueLayout.JAVA_LONG, SIZE_OFFSET, size);
+    }
+
+    private long offset(long index) {
+        return (head + index) % capacity * recordBytes;
+    }
+
+    private void checkRecord(MemorySegment record) {
+        if (record.byteSize() != recordBytes) {
+            throw new IllegalArgumentException("Record of " + record.byteSize() + " bytes, " + recordBytes + " expected");
+        }
+    }
+
+    public long recordBytes() {
+        return recordBytes;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public long longSize() {
+        return size;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Zero-copy slice of the record at index, counted from the first one.
+     */
+    public MemorySegment get(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return records.asSlice(offset(index), recordBytes);
+    }
+
+    public boolean offerFirst(MemorySegment record) {
+        checkRecord(record);
+        if (size == capacity) {
+            return false;
+        }
+        head = (head + capacity - 1) % capacity;
+        MemorySegment.copy(record, 0, records, offset(0), recordBytes);
+        size++;
+        modCount++;
+        writeState();
+        return true;
+    }
+
+    public boolean offerLast(MemorySegment record) {
+        checkRecord(record);
+        if (size == capacity) {
+            return false;
+        }
+        MemorySegment.copy(record, 0, records, offset(size), recordBytes);
+        size++;
+        modCount++;
+        writeState();
+        return true;
+    }
+
+    /**
+     * Copies the first record into destination and removes it. Returns false, leaving destination untouched, when the
+     * deque is empty.
+     */
+    public boolean pollFirst(MemorySegment destination) {
+        checkRecord(destination);
+        if (size == 0) {
+            return false;
+        }
+        MemorySegment.copy(records, offset(0), destination, 0, recordBytes);
+        head = (head + 1) % capacity;
+        size--;
+        modCount++;
+        writeState();
+        return true;
+    }
+
+    public boolean pollLast(MemorySegment destination) {
+        checkRecord(destination);
+        if (size == 0) {
+            return false;
+        }
+        MemorySegment.copy(records, offset(size - 1), destination, 0, recordBytes);
+        size--;
+        modCount++;
+        writeState();
+        return true;
+    }
+
+    /**
+     * Writes the mapped records to the file. Does nothing for a deque allocated in native memory.
+     */
+    public void force() {
+        if (mapped) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+        arena.close();
+    }
+
+    /**
+     * Index of the first record with the same content as record, or -1.
+     */
+    public long indexOf(MemorySegment record) {
+        if (record.byteSize() == recordBytes) {
+            for (long index = 0; index < size; index++) {
+                if (get(index).mismatch(record) == -1) {
+                    return index;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Index of the last record with the same content as record, or -1.
+     */
+    public long lastIndexOf(MemorySegment record) {
+        if (record.byteSize() == recordBytes) {
+            for (long index = size - 1; index >= 0; index--) {
+                if (get(index).mismatch(record) == -1) {
+                    return index;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the record at index, moving the records on its shorter side by one slot.
+     */
+    public void remove(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        if (index < size / 2) {
+            for (long i = index; i > 0; i--) {
+                MemorySegment.copy(records, offset(i - 1), records, offset(i), recordBytes);
+            }
+            head = (head + 1) % capacity;
+        } else {
+            for (long i = index; i < size - 1; i++) {
+                MemorySegment.copy(records, offset(i + 1), records, offset(i), recordBytes);
+            }
+        }
+        size--;
+        modCount++;
+        writeState();
+    }
+
+    // Collection methods comparing the content of records, instead of MemorySegment.equals.
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof MemorySegment record && indexOf(record) >= 0;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o instanceof MemorySegment record) {
+            long index = indexOf(record);
+            if (index >= 0) {
+                remove(index);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        return removeIf(record -> containsContent(c, record));
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        return removeIf(record -> !containsContent(c, record));
+    }
+
+    private static boolean containsContent(Collection<?> c, MemorySegment record) {
+        for (Object o : c) {
+            if (o instanceof MemorySegment other && other.byteSize() == record.byteSize() && other.mismatch(record) == -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // SequencedCollection methods. Added records are copied in; removed records are copied out to the heap.
+
+    @Override
+    public boolean add(MemorySegment record) {
+        addLast(record);
+        return true;
+    }
+
+    @Override
+    public void addFirst(MemorySegment record) {
+        if (!offerFirst(record)) {
+            throw new IllegalStateException("Deque full");
+        }
+    }
+
+    @Override
+    public void addLast(MemorySegment record) {
+        if (!offerLast(record)) {
+            throw new IllegalStateException("Deque full");
+        }
+    }
+
+    @Override
+    public MemorySegment getFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return get(0);
+    }
+
+    @Override
+    public MemorySegment getLast() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return get(size - 1);
+    }
+
+    @Override
+    public MemorySegment removeFirst() {
+        MemorySegment record = MemorySegment.ofArray(new byte[Math.toIntExact(recordBytes)]);
+        if (!pollFirst(record)) {
+            throw new NoSuchElementException();
+        }
+        return record;
+    }
+
+    @Override
+    public MemorySegment removeLast() {
+        MemorySegment record = MemorySegment.ofArray(new byte[Math.toIntExact(recordBytes)]);
+        if (!pollLast(record)) {
+            throw new NoSuchElementException();
+        }
+        return record;
+    }
+
+    @Override
+    public void clear() {
+        head = 0;
+        size = 0;
+        modCount++;
+        writeState();
+    }
+
+    @Override
+    public Iterator<MemorySegment> iterator() {
+        return new RecordIterator(false);
+    }
+
+    @Override
+    public SequencedCollection<MemorySegment> reversed() {
+        return new ReversedView();
+    }
+
+    private final class RecordIterator implements Iterator<MemorySegment> {
+
+        private final boolean descending;
+        private long next;
+        private long lastReturned = -1;
+        private int expectedModCount = modCount;
+
+        private RecordIterator(boolean descending) {
+            this.descending = descending;
+            this.next = descending ? size - 1 : 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            checkForComodification();
+            return next >= 0 && next < size;
+        }
+
+        @Override
+        public MemorySegment next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = next;
+            next += descending ? -1 : 1;
+            return get(lastReturned);
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            // The records following the removed one move down by one index, whichever side remove(long) shifts.
+            OffHeapRecordDeque.this.remove(lastReturned);
+            if (!descending) {
+                next = lastReturned;
+            }
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    private final class ReversedView extends AbstractCollection<MemorySegment> implements SequencedCollection<MemorySegment> {
+
+        @Override
+        public Iterator<MemorySegment> iterator() {
+            return new RecordIterator(true);
+        }
+
+        @Override
+        public int size() {
+            return OffHeapRecordDeque.this.size();
+        }
+
+        @Override
+        public boolean add(MemorySegment record) {
+            OffHeapRecordDeque.this.addFirst(record);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            OffHeapRecordDeque.this.clear();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return OffHeapRecordDeque.this.contains(o);
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            return OffHeapRecordDeque.this.removeAll(c);
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+            return OffHeapRecordDeque.this.retainAll(c);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (o instanceof MemorySegment record) {
+                long index = OffHeapRecordDeque.this.lastIndexOf(record);
+                if (index >= 0) {
+                    OffHeapRecordDeque.this.remove(index);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void addFirst(MemorySegment record) {
+            OffHeapRecordDeque.this.addLast(record);
+        }
+
+        @Override
+        public void addLast(MemorySegment record) {
+            OffHeapRecordDeque.this.addFirst(record);
+        }
+
+        @Override
+        public MemorySegment getFirst() {
+            return OffHeapRecordDeque.this.getLast();
+        }
+
+        @Override
+        public MemorySegment getLast() {
+            return OffHeapRecordDeque.this.getFirst();
+        }
+
+        @Override
+        public MemorySegment removeFirst() {
+            return OffHeapRecordDeque.this.removeLast();
+        }
+
+        @Override
+        public MemorySegment removeLast() {
+            return OffHeapRecordDeque.this.removeFirst();
+        }
+
+        @Override
+        public SequencedCollection<MemorySegment> reversed() {
+            return OffHeapRecordDeque.this;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Batch classification of heterogeneous objects (strings, numbers, records...) on a ForkJoinPool.
+ *
+ * The input is a Spliterator, split in halves (trySplit) as long as the parts are bigger than a leaf size : each part is
+ * a forked task, so idle workers steal the parts left by busy ones. Each leaf feeds its objects to the Accumulator of
+ * its worker thread, which typically classifies them with a pattern matching switch. An accumulator is created per
+ * worker thread (not per task), so :
+ * - there is no shared state, hence no contention, while classifying ;
+ * - there are as many accumulators to merge at the end as worker threads, whatever the number of tasks.
+ *
+ * As for a parallel stream, ArrayList and arrays give balanced splits, and the throughput should grow close to linearly
+ * with the pool parallelism as long as objects are small (see ParallelClassifierBenchmark).
+ */
+public final class ParallelClassifier {
+
+    /**
+     * Mutable result of the classification of some objects. Only used by one thread at a time.
+     */
+    public interface Accumulator<A extends Accumulator<A>> {
+        void accept(Object o);
+
+        /**
+         * Adds the results of other to this one.
+         */
+        void merge(A other);
+    }
+
+    /**
+     * Number of leaves per worker thread : more leaves balance the load better, fewer leaves cost less splitting.
+     */
+    private static final int LEAVES_PER_THREAD = 8;
+
+    private ParallelClassifier() {
+    }
+
+    public static <A extends Accumulator<A>> A classify(Object[] objects, Supplier<A> accumulators, ForkJoinPool pool) {
+        return classify(Arrays.spliterator(objects), accumulators, pool);
+    }
+
+    public static <A extends Accumulator<A>> A classify(List<?> objects, Supplier<A> accumulators, ForkJoinPool pool) {
+        return classify(objects.spliterator(), accumulators, pool);
+    }
+
+    /**
+     * Feeds all the objects of input to accumulators created by the given supplier (one per worker thread of pool), and
+     * returns their merge.
+     */
+    public static <A extends Accumulator<A>> A classify(Spliterator<?> input, Supplier<A> accumulators, ForkJoinPool pool) {
+        Queue<A> created = new ConcurrentLinkedQueue<>();
+        // A new ThreadLocal per call : workers reused by another call get new accumulators. The entries left in the
+        // workers are dropped along with this ThreadLocal, as ThreadLocal maps reference their keys weakly.
+        ThreadLocal<A> local = ThreadLocal.withInitial(() -> {
+            A accumulator = accumulators.get();
+            created.add(accumulator);
+            return accumulator;
+        });
+        long leafSize = Math.max(1, input.estimateSize() / ((long) pool.getParallelism() * LEAVES_PER_THREAD));
+        pool.invoke(new ClassifyTask<>(null, input, leafSize, local));
+
+        A result = accumulators.get();
+        for (A accumulator : created) {
+            result.merge(accumulator);
+        }
+        return result;
+    }
+
+    public static <A extends Accumulator<A>> A classify(Spliterator<?> input, Supplier<A> accumulators) {
+        return classify(input, accumulators, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sequential classification, for comparison : a single accumulator fed by the caller thread.
+     */
+    public static <A extends Accumulator<A>> A classifySequentially(Object[] objects, Supplier<A> accumulators) {
+        A accumulator = accumulators.get();
+        for (Object o : objects) {
+            accumulator.accept(o);
+        }
+        return accumulator;
+    }
+
+    @SuppressWarnings("serial") // Never serialized, as any ForkJoinTask in practice.
+    private static final class ClassifyTask<A extends Accumulator<A>> extends CountedCompleter<Void> {
+        private final Spliterator<?> spliterator;
+        private final long leafSize;
+        private final ThreadLocal<A> accumulators;
+
+        private ClassifyTask(ClassifyTask<A> parent, Spliterator<?> spliterator, long leafSize, ThreadLocal<A> accumulators) {
+            super(parent);
+            this.spliterator = spliterator;
+            this.leafSize = leafSize;
+            this.accumulators = accumulators;
+        }
+
+        @Override
+        public void compute() {
+            Spliterator<?> right = spliterator;
+            Spliterator<?> left;
+            // Forks the left halves and keeps splitting the right one, which this task then classifies itself.
+            while (right.estimateSize() > leafSize && (left = right.trySplit()) != null) {
+                addToPendingCount(1);
+                new ClassifyTask<>(this, left, leafSize, accumulators).fork();
+            }
+            A accumulator = accumulators.get();
+            right.forEachRemaining(accumulator::accept);
+            propagateCompletion();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package tutorial_000.languageNewFeatures;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of ParallelClassifier : the same mixed objects classified on pools of 1 to 16 worker threads, against a
+ * sequential loop. The throughput should grow close to linearly up to the number of cores, then stay flat.
+ *
+ * Limit the parallelism values to the cores of the machine, e.g. "-p parallelism=1,2,4,8".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ParallelClassifierBenchmark {
+
+    @Param({"4194304"})
+    private int size;
+
+    @Param({"1", "2", "4", "8", "16"})
+    private int parallelism;
+
+    private Object[] objects;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objects = MixedObjectStats.sample(size, 42);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public MixedObjectStats parallel() {
+        return ParallelClassifier.classify(objects, MixedObjectStats::new, pool);
+    }
+
+    @Benchmark
+    public MixedObjectStats sequential() {
+        return ParallelClassifier.classifySequentially(objects, MixedObjectStats::new);
+    }
+}
@@ -0,0 +1,190 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import tutorial_000.languageNewFeatures._003_RecordPatterns.Path;
+import tutorial_000.languageNewFeatures._003_RecordPatterns.Position;
+import tutorial_000.languageNewFeatures._003_RecordPatterns.Situation;
+
+/**
+ * Column-wise (struct of arrays) storage of the Path records of _003_RecordPatterns.
+ *
+ * A List<Path> of one million paths holds three million objects (Path, Position, Situation) scattered on the heap, and
+ * each bulk operation chases their pointers. Here the four coordinates are stored in four int[] columns, so bulk
+ * operations (boundingBox, totalLength, filter...) are tight loops over contiguous primitive arrays.
+ *
+ * It is still a List<Path> : add(Path) decomposes the path with a record pattern, and get(int) builds a Path record on
+ * demand, so that it may be used with pattern matching like any other Path.
+ */
+public final class PathColumns extends AbstractList<Path> implements RandomAccess {
+
+    public record BoundingBox(int minX, int minY, int maxX, int maxY) {}
+
+    @FunctionalInterface
+    public interface PathPredicate {
+        boolean test(int fromX, int fromY, int toX, int toY);
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] fromX;
+    private int[] fromY;
+    private int[] toX;
+    private int[] toY;
+    private int size;
+
+    public PathColumns() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PathColumns(int initialCapacity) {
+        fromX = new int[initialCapacity];
+        fromY = new int[initialCapacity];
+        toX = new int[initialCapacity];
+        toY = new int[initialCapacity];
+    }
+
+    public void add(int fromX, int fromY, int toX, int toY) {
+        if (size == this.fromX.length) {
+            int newCapacity = Math.max(DEFAULT_CAPACITY, size + (size >> 1));
+            this.fromX = Arrays.copyOf(this.fromX, newCapacity);
+            this.fromY = Arrays.copyOf(this.fromY, newCapacity);
+            this.toX = Arrays.copyOf(this.toX, newCapacity);
+            this.toY = Arrays.copyOf(this.toY, newCapacity);
+        }
+        this.fromX[size] = fromX;
+        this.fromY[size] = fromY;
+        this.toX[size] = toX;
+        this.toY[size] = toY;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public boolean add(Path path) {
+        // A record pattern does not match null components : a Path without from or to cannot be stored.
+        if (!(path instanceof Path(Position(int x1, int y1), Situation(int x2, int y2)))) {
+            throw new NullPointerException("Incomplete path : " + path);
+        }
+        add(x1, y1, x2, y2);
+        return true;
+    }
+
+    /**
+     * Builds the Path record at index.
+     */
+    @Override
+    public Path get(int index) {
+        Objects.checkIndex(index, size);
+        return new Path(new Position(fromX[index], fromY[index]), new Situation(toX[index], toY[index]));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    public int fromX(int index) {
+        Objects.checkIndex(index, size);
+        return fromX[index];
+    }
+
+    public int fromY(int index) {
+        Objects.checkIndex(index, size);
+        return fromY[index];
+    }
+
+    public int toX(int index) {
+        Objects.checkIndex(index, size);
+        return toX[index];
+    }
+
+    public int toY(int index) {
+        Objects.checkIndex(index, size);
+        return toY[index];
+    }
+
+    // Bulk operations, as loops over the columns.
+
+    /**
+     * Smallest box holding the starting and ending points of every path.
+     */
+    public BoundingBox boundingBox() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            minX = Math.min(minX, Math.min(fromX[i], toX[i]));
+            maxX = Math.max(maxX, Math.max(fromX[i], toX[i]));
+        }
+        for (int i = 0; i < size; i++) {
+            minY = Math.min(minY, Math.min(fromY[i], toY[i]));
+            maxY = Math.max(maxY, Math.max(fromY[i], toY[i]));
+        }
+        return new BoundingBox(minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Sum of the euclidean lengths of every path.
+     */
+    public double totalLength() {
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += length(i);
+        }
+        return total;
+    }
+
+    private double length(int index) {
+        double dx = (double) toX[index] - fromX[index];
+        double dy = (double) toY[index] - fromY[index];
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    public int count(PathPredicate predicate) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (predicate.test(fromX[i], fromY[i], toX[i], toY[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * New PathColumns holding the paths matching predicate.
+     */
+    public PathColumns filter(PathPredicate predicate) {
+        PathColumns filtered = new PathColumns();
+        for (int i = 0; i < size; i++) {
+            if (predicate.test(fromX[i], fromY[i], toX[i], toY[i])) {
+                filtered.add(fromX[i], fromY[i], toX[i], toY[i]);
+            }
+        }
+        return filtered;
+    }
+
+    public PathColumns filterLongerThan(double minLength) {
+        PathColumns filtered = new PathColumns();
+        for (int i = 0; i < size; i++) {
+            if (length(i) > minLength) {
+                filtered.add(fromX[i], fromY[i], toX[i], toY[i]);
+            }
+        }
+        return filtered;
+    }
+}
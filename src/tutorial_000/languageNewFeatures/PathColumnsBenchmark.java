@@ -0,0 +1,103 @@
+package tutorial_000.languageNewFeatures;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import tutorial_000.languageNewFeatures._003_RecordPatterns.Path;
+import tutorial_000.languageNewFeatures._003_RecordPatterns.Position;
+import tutorial_000.languageNewFeatures._003_RecordPatterns.Situation;
+
+/**
+ * Compares bulk operations over PathColumns with the same operations over a List<Path>, written with record patterns.
+ * The list is shuffled after being filled, as objects allocated at different times end up scattered on the heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PathColumnsBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private List<Path> paths;
+    private PathColumns columns;
+
+    @Setup(Level.Trial)
+    public void createPaths() {
+        SplittableRandom random = new SplittableRandom(42);
+        paths = new ArrayList<>(size);
+        columns = new PathColumns(size);
+        for (int i = 0; i < size; i++) {
+            Path path = new Path(new Position(random.nextInt(-10_000, 10_000), random.nextInt(-10_000, 10_000)),
+                    new Situation(random.nextInt(-10_000, 10_000), random.nextInt(-10_000, 10_000)));
+            paths.add(path);
+            columns.add(path);
+        }
+        Collections.shuffle(paths, new Random(42));
+    }
+
+    @Benchmark
+    public PathColumns.BoundingBox boundingBoxList() {
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (Path path : paths) {
+            if (path instanceof Path(Position(int x1, int y1), Situation(int x2, int y2))) {
+                minX = Math.min(minX, Math.min(x1, x2));
+                minY = Math.min(minY, Math.min(y1, y2));
+                maxX = Math.max(maxX, Math.max(x1, x2));
+                maxY = Math.max(maxY, Math.max(y1, y2));
+            }
+        }
+        return new PathColumns.BoundingBox(minX, minY, maxX, maxY);
+    }
+
+    @Benchmark
+    public PathColumns.BoundingBox boundingBoxColumns() {
+        return columns.boundingBox();
+    }
+
+    @Benchmark
+    public double totalLengthList() {
+        double total = 0;
+        for (Path path : paths) {
+            if (path instanceof Path(Position(int x1, int y1), Situation(int x2, int y2))) {
+                double dx = (double) x2 - x1;
+                double dy = (double) y2 - y1;
+                total += Math.sqrt(dx * dx + dy * dy);
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double totalLengthColumns() {
+        return columns.totalLength();
+    }
+
+    @Benchmark
+    public int countEastwardList() {
+        int count = 0;
+        for (Path path : paths) {
+            if (path instanceof Path(Position(int x1, int y1), Situation(int x2, int y2)) && x2 > x1) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int countEastwardColumns() {
+        return columns.count((fromX, fromY, toX, toY) -> toX > fromX);
+    }
+}
@@ -0,0 +1,40 @@
+package tutorial_000.languageNewFeatures;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+/**
+ * Peak heap usage, read from the heap memory pools MXBeans. Call reset() before a run and megaBytes() after it.
+ */
+public final class PeakHeap {
+
+    private PeakHeap() {}
+
+    public static void reset() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * Sum of the peak usage of every heap pool since the last reset(). As each pool peaks at its own time, this is
+     * an upper bound of the real heap peak, which is precise enough to compare two runs.
+     */
+    public static long bytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    public static long megaBytes() {
+        return bytes() / (1024 * 1024);
+    }
+}
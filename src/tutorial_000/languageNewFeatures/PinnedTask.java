@@ -0,0 +1,23 @@
+package tutorial_000.languageNewFeatures;
+
+/**
+ * Same as Task, but blocks inside a synchronized block : the virtual thread running it cannot be unmounted and stays
+ * pinned to its carrier thread while waiting.
+ */
+public class PinnedTask extends Task {
+
+    public PinnedTask(int number) {
+        super(number);
+    }
+
+    public PinnedTask(int number, long sleepMillis) {
+        super(number, sleepMillis);
+    }
+
+    @Override
+    public int callAsInt() {
+        synchronized (this) {
+            return super.callAsInt();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package tutorial_000.languageNewFeatures;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records carrier pinning events (JFR jdk.VirtualThreadPinned) while a workload runs, and summarizes them per task type.
+ *
+ * The task type of an event is the most derived class of its stack trace among the given task types (PinnedTask rather
+ * than the Task it extends), "other" when none matches. Usage :
+ *   PinningMonitor monitor = PinningMonitor.start(Task.class, PinnedTask.class);
+ *   ... run the tasks ...
+ *   monitor.stop();
+ *   System.out.println(monitor.report());
+ */
+public final class PinningMonitor implements AutoCloseable {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String OTHER = "other";
+
+    private final RecordingStream stream = new RecordingStream();
+    private final List<Class<?>> taskTypes;
+    private final Map<String, PinnedStats> statsByTaskType = new ConcurrentHashMap<>();
+
+    private PinningMonitor(List<Class<?>> taskTypes) {
+        this.taskTypes = taskTypes;
+    }
+
+    public static PinningMonitor start(Class<?>... taskTypes) {
+        PinningMonitor monitor = new PinningMonitor(List.of(taskTypes));
+        // Threshold 0 : every pinned park is recorded, not only the ones longer than the default 20 ms.
+        monitor.stream.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+        monitor.stream.onEvent(PINNED_EVENT, monitor::onPinned);
+        monitor.stream.startAsync();
+        return monitor;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        statsByTaskType.computeIfAbsent(taskTypeOf(event), taskType -> new PinnedStats()).add(event.getDuration());
+    }
+
+    private String taskTypeOf(RecordedEvent event) {
+        Class<?> taskType = null;
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace != null) {
+            for (RecordedFrame frame : stackTrace.getFrames()) {
+                String className = frame.getMethod().getType().getName();
+                for (Class<?> candidate : taskTypes) {
+                    if (candidate.getName().equals(className) && (taskType == null || taskType.isAssignableFrom(candidate))) {
+                        taskType = candidate;
+                    }
+                }
+            }
+        }
+        return taskType == null ? OTHER : taskType.getSimpleName();
+    }
+
+    /**
+     * Stops recording and waits until every recorded event has been consumed, so that report() is complete.
+     */
+    public void stop() {
+        stream.stop();
+    }
+
+    public Map<String, PinnedStats> statsByTaskType() {
+        return new TreeMap<>(statsByTaskType);
+    }
+
+    public String report() {
+        if (statsByTaskType.isEmpty()) {
+            return "No pinned virtual thread." + System.lineSeparator();
+        }
+        StringBuilder report = new StringBuilder();
+        statsByTaskType().forEach((taskType, stats) -> report.append(String.format(
+                "%s : pinned %d times; total = %d ms; max = %d ms%n",
+                taskType, stats.count(), stats.totalMillis(), stats.maxMillis())));
+        return report.toString();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    public static final class PinnedStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private volatile long maxNanos;
+
+        // Events are consumed by the single thread of the recording stream.
+        private void add(Duration duration) {
+            long nanos = duration.toNanos();
+            count.increment();
+            totalNanos.add(nanos);
+            if (nanos > maxNanos) {
+                maxNanos = nanos;
+            }
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long totalMillis() {
+            return totalNanos.sum() / 1_000_000;
+        }
+
+        public long maxMillis() {
+            return maxNanos / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package tutorial_000.languageNewFeatures;
+
+/**
+ * Math.clamp loop implementation of BulkClamp, over [from, to) of src, written into dst (which may be src).
+ */
+final class ScalarClamp {
+
+    private ScalarClamp() {
+    }
+
+    static void clamp(int[] src, int[] dst, int min, int max, int from, int to) {
+        for (int i = from; i < to; i++) {
+            dst[i] = Math.clamp(src[i], min, max);
+        }
+    }
+
+    static void clamp(long[] src, long[] dst, long min, long max, int from, int to) {
+        for (int i = from; i < to; i++) {
+            dst[i] = Math.clamp(src[i], min, max);
+        }
+    }
+
+    static void clamp(float[] src, float[] dst, float min, float max, int from, int to) {
+        for (int i = from; i < to; i++) {
+            dst[i] = Math.clamp(src[i], min, max);
+        }
+    }
+
+    static void clamp(double[] src, double[] dst, double min, double max, int from, int to) {
+        for (int i = from; i < to; i++) {
+            dst[i] = Math.clamp(src[i], min, max);
+        }
+    }
+}
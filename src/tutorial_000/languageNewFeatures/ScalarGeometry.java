@@ -0,0 +1,91 @@
+package tutorial_000.languageNewFeatures;
+
+import tutorial_000.languageNewFeatures.BatchGeometry.Pairs2D;
+import tutorial_000.languageNewFeatures.BatchGeometry.Pairs3D;
+
+/**
+ * Plain loop implementation of BatchGeometry, used when the Vector API is not available or the batch is small. The
+ * JIT may still auto-vectorize some of these loops (displacements), but not the ones converting int to double.
+ */
+final class ScalarGeometry {
+
+    private ScalarGeometry() {
+    }
+
+    static void distances(Pairs2D pairs, double[] distances) {
+        distances(pairs, distances, 0, pairs.length());
+    }
+
+    static void distances(Pairs2D pairs, double[] distances, int from, int to) {
+        int[] fromX = pairs.fromX(), fromY = pairs.fromY(), toX = pairs.toX(), toY = pairs.toY();
+        for (int i = from; i < to; i++) {
+            double dx = (double) toX[i] - fromX[i];
+            double dy = (double) toY[i] - fromY[i];
+            distances[i] = Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+
+    static void distances(Pairs3D pairs, double[] distances) {
+        distances(pairs, distances, 0, pairs.length());
+    }
+
+    static void distances(Pairs3D pairs, double[] distances, int from, int to) {
+        int[] fromX = pairs.fromX(), fromY = pairs.fromY(), fromZ = pairs.fromZ();
+        int[] toX = pairs.toX(), toY = pairs.toY(), toZ = pairs.toZ();
+        for (int i = from; i < to; i++) {
+            double dx = (double) toX[i] - fromX[i];
+            double dy = (double) toY[i] - fromY[i];
+            double dz = (double) toZ[i] - fromZ[i];
+            distances[i] = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+    }
+
+    static double totalDistance(Pairs2D pairs) {
+        return totalDistance(pairs, 0, pairs.length());
+    }
+
+    static double totalDistance(Pairs2D pairs, int from, int to) {
+        int[] fromX = pairs.fromX(), fromY = pairs.fromY(), toX = pairs.toX(), toY = pairs.toY();
+        double total = 0;
+        for (int i = from; i < to; i++) {
+            double dx = (double) toX[i] - fromX[i];
+            double dy = (double) toY[i] - fromY[i];
+            total += Math.sqrt(dx * dx + dy * dy);
+        }
+        return total;
+    }
+
+    static double totalDistance(Pairs3D pairs) {
+        return totalDistance(pairs, 0, pairs.length());
+    }
+
+    static double totalDistance(Pairs3D pairs, int from, int to) {
+        int[] fromX = pairs.fromX(), fromY = pairs.fromY(), fromZ = pairs.fromZ();
+        int[] toX = pairs.toX(), toY = pairs.toY(), toZ = pairs.toZ();
+        double total = 0;
+        for (int i = from; i < to; i++) {
+            double dx = (double) toX[i] - fromX[i];
+            double dy = (double) toY[i] - fromY[i];
+            double dz = (double) toZ[i] - fromZ[i];
+            total += Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+        return total;
+    }
+
+    static void displacements(Pairs2D pairs, int[] dx, int[] dy) {
+        displacements(pairs.fromX(), pairs.toX(), dx, 0, pairs.length());
+        displacements(pairs.fromY(), pairs.toY(), dy, 0, pairs.length());
+    }
+
+    static void displacements(Pairs3D pairs, int[] dx, int[] dy, int[] dz) {
+        displacements(pairs.fromX(), pairs.toX(), dx, 0, pairs.length());
+        displacements(pairs.fromY(), pairs.toY(), dy, 0, pairs.length());
+        displacements(pairs.fromZ(), pairs.toZ(), dz, 0, pairs.length());
+    }
+
+    static void displacements(int[] from, int[] to, int[] delta, int start, int end) {
+        for (int i = start; i < end; i++) {
+            delta[i] = to[i] - from[i];
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.concurrent.Callable;
+
+/**
+ * TaskContext on a ScopedValue. ScopedValue is a preview API in java 21 : this class only loads with --enable-preview.
+ */
+final class ScopedTaskContext<T> extends TaskContext<T> {
+
+    private final ScopedValue<T> key = ScopedValue.newInstance();
+
+    private ScopedTaskContext() {
+    }
+
+    /**
+     * Typed as TaskContext, so that the bytecode verifier does not load this class to check TaskContext methods
+     * returning it : loading it fails without --enable-preview.
+     */
+    static <T> TaskContext<T> create() {
+        return new ScopedTaskContext<>();
+    }
+
+    @Override
+    public T get() {
+        // A single lookup of the binding, where isBound() then get() would make two.
+        return key.orElseThrow(TaskContext::notBound);
+    }
+
+    @Override
+    public boolean isBound() {
+        return key.isBound();
+    }
+
+    @Override
+    Binding bind(T value) {
+        ScopedValue.Carrier carrier = ScopedValue.where(key, value);
+        return new Binding() {
+            @Override
+            public <R> R call(Callable<R> task) throws Exception {
+                return carrier.call(task);
+            }
+        };
+    }
+}
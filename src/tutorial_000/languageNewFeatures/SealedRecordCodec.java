@@ -0,0 +1,458 @@
+package tutorial_000.languageNewFeatures;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.RecordComponent;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Binary codec for a sealed interface whose permitted subclasses are records of primitive components, such as
+ * Location (Position2D, Position3D) of _003_RecordPatterns.
+ *
+ * As a sealed hierarchy is closed, its binary layout is derived once from the permits list and the record components :
+ * - a one byte tag, the index of the record class in getPermittedSubclasses() ;
+ * - then the components in declaration order, little-endian, without alignment ;
+ * - every record takes recordBytes() bytes, the size of the biggest one, so that the n-th record of a file or buffer is
+ *   at offset n * recordBytes(). The padding bytes of smaller records are unspecified (zeros in files).
+ * The same layout is used in ByteBuffers and MemorySegments.
+ *
+ * Reflection is only used when creating the codec, to combine method handles : one encoder per record class (tag,
+ * then each accessor result written at its offset) and one decoder (each component read at its offset, then the
+ * canonical constructor). Encoding and decoding then allocate nothing but the decoded records.
+ *
+ * RecordWriter and RecordReader stream records to and from files of millions of records, behind a header checking the
+ * file was written with the same layout. java.lang.foreign is a preview API in java 21 : run with --enable-preview.
+ */
+public final class SealedRecordCodec<T> {
+
+    private static final int MAGIC = 0x53524331;
+    private static final int HEADER_BYTES = 16;
+    private static final int TAG_BYTES = 1;
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * Method handles reading and writing primitives in a ByteBuffer (int offsets) or a MemorySegment (long offsets).
+     */
+    private record Access(Class<?> target, Class<?> offset, Function<Class<?>, MethodHandle> getters,
+                          Function<Class<?>, MethodHandle> setters, MethodHandle plus) {
+
+        /**
+         * (target, offset) -> type
+         */
+        MethodHandle getter(Class<?> type, long componentOffset) {
+            return MethodHandles.filterArguments(getters.apply(type), 1, plus(componentOffset));
+        }
+
+        /**
+         * (target, offset, type) -> void
+         */
+        MethodHandle setter(Class<?> type, long componentOffset) {
+            return MethodHandles.filterArguments(setters.apply(type), 1, plus(componentOffset));
+        }
+
+        private MethodHandle plus(long componentOffset) {
+            return MethodHandles.insertArguments(plus, 1, offset == int.class ? (Object) (int) componentOffset : (Object) componentOffset);
+        }
+    }
+
+    private static final Map<Class<?>, Class<?>> ARRAY_VIEWS = Map.of(short.class, short[].class, char.class, char[].class,
+            int.class, int[].class, long.class, long[].class, float.class, float[].class, double.class, double[].class);
+    private static final Map<Class<?>, ValueLayout> LAYOUTS = Map.of(boolean.class, ValueLayout.JAVA_BOOLEAN,
+            byte.class, ValueLayout.JAVA_BYTE, short.class, ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ORDER),
+            char.class, ValueLayout.JAVA_CHAR_UNALIGNED.withOrder(ORDER), int.class, ValueLayout.JAVA_INT_UNALIGNED.withOrder(ORDER),
+            long.class, ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ORDER), float.class, ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(ORDER),
+            double.class, ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ORDER));
+
+    private static final Access BUFFER_ACCESS;
+    private static final Access SEGMENT_ACCESS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle getByte = lookup.findVirtual(ByteBuffer.class, "get", MethodType.methodType(byte.class, int.class));
+            MethodHandle putByte = lookup.findVirtual(ByteBuffer.class, "put", MethodType.methodType(ByteBuffer.class, int.class, byte.class))
+                    .asType(MethodType.methodType(void.class, ByteBuffer.class, int.class, byte.class));
+            MethodHandle toBoolean = lookup.findStatic(SealedRecordCodec.class, "toBoolean", MethodType.methodType(boolean.class, byte.class));
+            MethodHandle toByte = lookup.findStatic(SealedRecordCodec.class, "toByte", MethodType.methodType(byte.class, boolean.class));
+            BUFFER_ACCESS = new Access(ByteBuffer.class, int.class,
+                    type -> switch (type.getName()) {
+                        case "byte" -> getByte;
+                        case "boolean" -> MethodHandles.filterReturnValue(getByte, toBoolean);
+                        default -> bufferView(type).toMethodHandle(VarHandle.AccessMode.GET);
+                    },
+                    type -> switch (type.getName()) {
+                        case "byte" -> putByte;
+                        case "boolean" -> MethodHandles.filterArguments(putByte, 2, toByte);
+                        default -> bufferView(type).toMethodHandle(VarHandle.AccessMode.SET);
+                    },
+                    lookup.findStatic(Math.class, "addExact", MethodType.methodType(int.class, int.class, int.class)));
+            SEGMENT_ACCESS = new Access(MemorySegment.class, long.class,
+                    type -> MethodHandles.memorySegmentViewVarHandle(LAYOUTS.get(type)).toMethodHandle(VarHandle.AccessMode.GET),
+                    type -> MethodHandles.memorySegmentViewVarHandle(LAYOUTS.get(type)).toMethodHandle(VarHandle.AccessMode.SET),
+                    lookup.findStatic(Math.class, "addExact", MethodType.methodType(long.class, long.class, long.class)));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static VarHandle bufferView(Class<?> type) {
+        return MethodHandles.byteBufferViewVarHandle(ARRAY_VIEWS.get(type), ORDER);
+    }
+
+    private static boolean toBoolean(byte b) {
+        return b != 0;
+    }
+
+    private static byte toByte(boolean b) {
+        return b ? (byte) 1 : 0;
+    }
+
+    private final Class<T> type;
+    private final Class<?>[] recordTypes;
+    private final int[] usedBytes;
+    private final int recordBytes;
+    private final int fingerprint;
+    // (Object record, ByteBuffer, int offset) -> void, per tag.
+    private final MethodHandle[] bufferEncoders;
+    // (ByteBuffer, int offset) -> Object, per tag.
+    private final MethodHandle[] bufferDecoders;
+    // (Object record, MemorySegment, long offset) -> void, per tag.
+    private final MethodHandle[] segmentEncoders;
+    // (MemorySegment, long offset) -> Object, per tag.
+    private final MethodHandle[] segmentDecoders;
+
+    private SealedRecordCodec(Class<T> type, MethodHandles.Lookup lookup) throws ReflectiveOperationException {
+        if (!type.isSealed()) {
+            throw new IllegalArgumentException(type.getName() + " is not sealed");
+        }
+        this.type = type;
+        recordTypes = type.getPermittedSubclasses();
+        if (recordTypes.length > 256) {
+            throw new IllegalArgumentException(type.getName() + " permits more than 256 subclasses");
+        }
+        usedBytes = new int[recordTypes.length];
+        bufferEncoders = new MethodHandle[recordTypes.length];
+        bufferDecoders = new MethodHandle[recordTypes.length];
+        segmentEncoders = new MethodHandle[recordTypes.length];
+        segmentDecoders = new MethodHandle[recordTypes.length];
+        StringBuilder layout = new StringBuilder();
+        int maxBytes = 0;
+        for (int tag = 0; tag < recordTypes.length; tag++) {
+            Class<?> recordType = recordTypes[tag];
+            RecordComponent[] components = recordType.getRecordComponents();
+            if (components == null) {
+                throw new IllegalArgumentException(recordType.getName() + " is not a record");
+            }
+            layout.append(recordType.getName()).append('(');
+            long bytes = TAG_BYTES;
+            for (RecordComponent component : components) {
+                if (!component.getType().isPrimitive()) {
+                    throw new IllegalArgumentException(recordType.getName() + "." + component.getName() + " is not a primitive");
+                }
+                bytes += LAYOUTS.get(component.getType()).byteSize();
+                layout.append(component.getType().getName()).append(',');
+            }
+            layout.append(')');
+            usedBytes[tag] = Math.toIntExact(bytes);
+            maxBytes = Math.max(maxBytes, usedBytes[tag]);
+            bufferEncoders[tag] = encoder(BUFFER_ACCESS, lookup, tag, components);
+            bufferDecoders[tag] = decoder(BUFFER_ACCESS, lookup, recordType, components);
+            segmentEncoders[tag] = encoder(SEGMENT_ACCESS, lookup, tag, components);
+            segmentDecoders[tag] = decoder(SEGMENT_ACCESS, lookup, recordType, components);
+        }
+        recordBytes = maxBytes;
+        fingerprint = layout.toString().hashCode();
+    }
+
+    /**
+     * Codec of the sealed interface type, whose records must be accessible from this class (public, or in its package).
+     */
+    public static <T> SealedRecordCodec<T> of(Class<T> type) {
+        return of(type, MethodHandles.lookup());
+    }
+
+    /**
+     * Codec of the sealed interface type, whose record accessors and constructors are looked up with lookup.
+     */
+    public static <T> SealedRecordCodec<T> of(Class<T> type, MethodHandles.Lookup lookup) {
+        try {
+            return new SealedRecordCodec<>(type, lookup);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot access the records of " + type.getName(), e);
+        }
+    }
+
+    private static MethodHandle encoder(Access access, MethodHandles.Lookup lookup, int tag, RecordComponent[] components)
+            throws IllegalAccessException {
+        MethodType encoderType = MethodType.methodType(void.class, Object.class, access.target(), access.offset());
+        // Writes the tag...
+        MethodHandle encoder = MethodHandles.dropArguments(
+                MethodHandles.insertArguments(access.setter(byte.class, 0), 2, (byte) tag), 0, Object.class);
+        // ...then each component : (target, offset, Object record) -> void, reordered as (Object record, target, offset).
+        long componentOffset = TAG_BYTES;
+        for (RecordComponent component : components) {
+            Class<?> componentType = component.getType();
+            MethodHandle accessor = lookup.unreflect(component.getAccessor()).asType(MethodType.methodType(componentType, Object.class));
+            MethodHandle writer = MethodHandles.filterArguments(access.setter(componentType, componentOffset), 2, accessor);
+            writer = MethodHandles.permuteArguments(writer, encoderType, 1, 2, 0);
+            encoder = MethodHandles.foldArguments(writer, encoder);
+            componentOffset += LAYOUTS.get(componentType).byteSize();
+        }
+        return encoder;
+    }
+
+    private static MethodHandle decoder(Access access, MethodHandles.Lookup lookup, Class<?> recordType, RecordComponent[] components)
+            throws ReflectiveOperationException {
+        Class<?>[] componentTypes = new Class<?>[components.length];
+        MethodHandle[] readers = new MethodHandle[components.length];
+        int[] reorder = new int[components.length * 2];
+        long componentOffset = TAG_BYTES;
+        for (int i = 0; i < components.length; i++) {
+            componentTypes[i] = components[i].getType();
+            readers[i] = access.getter(componentTypes[i], componentOffset);
+            componentOffset += LAYOUTS.get(componentTypes[i]).byteSize();
+            reorder[2 * i] = 0;
+            reorder[2 * i + 1] = 1;
+        }
+        // (C1, C2...) -> R, then (target, offset, target, offset...) -> R, then (target, offset) -> Object.
+        MethodHandle constructor = lookup.findConstructor(recordType, MethodType.methodType(void.class, componentTypes));
+        MethodHandle decoder = constructor;
+        for (int i = components.length - 1; i >= 0; i--) {
+            decoder = MethodHandles.collectArguments(decoder, i, readers[i]);
+        }
+        decoder = MethodHandles.permuteArguments(decoder, MethodType.methodType(recordType, access.target(), access.offset()), reorder);
+        return decoder.asType(MethodType.methodType(Object.class, access.target(), access.offset()));
+    }
+
+    /**
+     * Size of every encoded record.
+     */
+    public int recordBytes() {
+        return recordBytes;
+    }
+
+    private int tag(T value) {
+        Class<?> recordType = value.getClass();
+        for (int tag = 0; tag < recordTypes.length; tag++) {
+            if (recordTypes[tag] == recordType) {
+                return tag;
+            }
+        }
+        // A permitted subclass is final (a record), so value is an instance of one of them.
+        throw new IllegalStateException("Unexpected " + recordType.getName());
+    }
+
+    private int checkTag(int tag) {
+        if (tag >= recordTypes.length) {
+            throw new IllegalArgumentException("Invalid tag " + tag + " for " + type.getName());
+        }
+        return tag;
+    }
+
+    /**
+     * Writes value at offset in buffer, whatever its position and byte order.
+     */
+    public void encode(T value, ByteBuffer buffer, int offset) {
+        encodeTagged(value, buffer, offset);
+    }
+
+    private int encodeTagged(T value, ByteBuffer buffer, int offset) {
+        int tag = tag(value);
+        try {
+            bufferEncoders[tag].invokeExact((Object) value, buffer, offset);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+        return tag;
+    }
+
+    /**
+     * Writes value at the position of buffer, and moves the position to the next record.
+     */
+    public void encode(T value, ByteBuffer buffer) {
+        int offset = buffer.position();
+        encode(value, buffer, offset);
+        buffer.position(offset + recordBytes);
+    }
+
+    public T decode(ByteBuffer buffer, int offset) {
+        int tag = checkTag(Byte.toUnsignedInt(buffer.get(offset)));
+        try {
+            return type.cast((Object) bufferDecoders[tag].invokeExact(buffer, offset));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads the record at the position of buffer, and moves the position to the next record.
+     */
+    public T decode(ByteBuffer buffer) {
+        int offset = buffer.position();
+        T value = decode(buffer, offset);
+        buffer.position(offset + recordBytes);
+        return value;
+    }
+
+    public void encode(T value, MemorySegment segment, long offset) {
+        try {
+            segmentEncoders[tag(value)].invokeExact((Object) value, segment, offset);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public T decode(MemorySegment segment, long offset) {
+        int tag = checkTag(Byte.toUnsignedInt(segment.get(ValueLayout.JAVA_BYTE, offset)));
+        try {
+            return type.cast((Object) segmentDecoders[tag].invokeExact(segment, offset));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public RecordWriter writer(Path file) throws IOException {
+        return new RecordWriter(file);
+    }
+
+    public RecordReader reader(Path file) throws IOException {
+        return new RecordReader(file);
+    }
+
+    /**
+     * Writes records to a file (created or truncated), through a buffer of a few thousand records.
+     */
+    public final class RecordWriter implements AutoCloseable {
+        private static final int BUFFERED_RECORDS = 4096;
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFERED_RECORDS * recordBytes);
+        private long count;
+
+        private RecordWriter(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ORDER)
+                    .putInt(MAGIC).putInt(fingerprint).putInt(recordBytes).putInt(0).flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        }
+
+        public void write(T value) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            int offset = buffer.position();
+            int tag = encodeTagged(value, buffer, offset);
+            for (int i = usedBytes[tag]; i < recordBytes; i++) {
+                buffer.put(offset + i, (byte) 0);
+            }
+            buffer.position(offset + recordBytes);
+            count++;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Reads the records of a file written by a RecordWriter of the same layout. The file is mapped in memory, so that
+     * reading it neither copies it nor depends on its size.
+     */
+    public final class RecordReader implements Iterator<T>, AutoCloseable {
+        private final Arena arena = Arena.ofConfined();
+        private final MemorySegment segment;
+        private final long count;
+        private long next;
+
+        private RecordReader(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+                if (segment.byteSize() < HEADER_BYTES
+                        || segment.get(ValueLayout.JAVA_INT_UNALIGNED.withOrder(ORDER), 0) != MAGIC
+                        || segment.get(ValueLayout.JAVA_INT_UNALIGNED.withOrder(ORDER), 4) != fingerprint
+                        || segment.get(ValueLayout.JAVA_INT_UNALIGNED.withOrder(ORDER), 8) != recordBytes
+                        || (segment.byteSize() - HEADER_BYTES) % recordBytes != 0) {
+                    throw new IOException("File " + file + " was not written with the layout of " + type.getName());
+                }
+                count = (segment.byteSize() - HEADER_BYTES) / recordBytes;
+            } catch (IOException | RuntimeException e) {
+                arena.close();
+                throw e;
+            }
+        }
+
+        public long count() {
+            return count;
+        }
+
+        /**
+         * Record at index, without moving the iterator.
+         */
+        public T get(long index) {
+            return decode(segment, HEADER_BYTES + Objects.checkIndex(index, count) * recordBytes);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < count;
+        }
+
+        @Override
+        public T next() {
+            if (next >= count) {
+                throw new NoSuchElementException();
+            }
+            return decode(segment, HEADER_BYTES + next++ * recordBytes);
+        }
+
+        /**
+         * Unmaps the file : the reader must not be used anymore.
+         */
+        @Override
+        public void close() {
+            arena.close();
+        }
+    }
+}
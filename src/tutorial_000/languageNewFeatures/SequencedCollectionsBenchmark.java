@@ -0,0 +1,170 @@
+package tutorial_000.languageNewFeatures;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the primitive sequenced collections (IntList, LongList, IntLinkedSet) with the boxed JDK classes shown in
+ * _002_SequencedCollections. Allocation per operation is shown with "-prof gc", and the retained memory per element by
+ * SequencedCollectionsFootprint.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SequencedCollectionsBenchmark {
+
+    private static final int OPERATIONS = 1_000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private IntList intList;
+    private ArrayList<Integer> arrayList;
+    private IntLinkedSet intLinkedSet;
+    private LinkedHashSet<Integer> linkedHashSet;
+    private int[] keys;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        intList = new IntList();
+        arrayList = new ArrayList<>();
+        intLinkedSet = new IntLinkedSet();
+        linkedHashSet = new LinkedHashSet<>();
+        for (int i = 0; i < size; i++) {
+            intList.addLastInt(i);
+            arrayList.addLast(i);
+            intLinkedSet.addInt(i);
+            linkedHashSet.add(i);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        keys = new int[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            keys[i] = random.nextInt(size);
+        }
+    }
+
+    // Building a collection of size elements.
+
+    @Benchmark
+    public IntList buildIntList() {
+        IntList list = new IntList();
+        for (int i = 0; i < size; i++) {
+            list.addLastInt(i);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public LongList buildLongList() {
+        LongList list = new LongList();
+        for (int i = 0; i < size; i++) {
+            list.addLastLong(i);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public ArrayList<Integer> buildArrayList() {
+        ArrayList<Integer> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            list.addLast(i);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public IntLinkedSet buildIntLinkedSet() {
+        IntLinkedSet set = new IntLinkedSet();
+        for (int i = 0; i < size; i++) {
+            set.addInt(i);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public LinkedHashSet<Integer> buildLinkedHashSet() {
+        LinkedHashSet<Integer> set = new LinkedHashSet<>();
+        for (int i = 0; i < size; i++) {
+            set.add(i);
+        }
+        return set;
+    }
+
+    // Deque usage : OPERATIONS times, move the last element to the beginning.
+
+    @Benchmark
+    public int rotateIntList() {
+        for (int i = 0; i < OPERATIONS; i++) {
+            intList.addFirstInt(intList.removeLastInt());
+        }
+        return intList.getFirstInt();
+    }
+
+    @Benchmark
+    public int rotateArrayList() {
+        for (int i = 0; i < OPERATIONS; i++) {
+            arrayList.addFirst(arrayList.removeLast());
+        }
+        return arrayList.getFirst();
+    }
+
+    // LRU usage : OPERATIONS times, move a random key to the end, then read the eldest one.
+
+    @Benchmark
+    public int touchIntLinkedSet() {
+        for (int key : keys) {
+            intLinkedSet.addLastInt(key);
+        }
+        return intLinkedSet.getFirstInt();
+    }
+
+    @Benchmark
+    public int touchLinkedHashSet() {
+        for (int key : keys) {
+            linkedHashSet.addLast(key);
+        }
+        return linkedHashSet.getFirst();
+    }
+
+    @Benchmark
+    public void containsIntLinkedSet(Blackhole blackhole) {
+        for (int key : keys) {
+            blackhole.consume(intLinkedSet.containsInt(key));
+        }
+    }
+
+    @Benchmark
+    public void containsLinkedHashSet(Blackhole blackhole) {
+        for (int key : keys) {
+            blackhole.consume(linkedHashSet.contains(key));
+        }
+    }
+
+    // Backward iteration through the reversed() view.
+
+    @Benchmark
+    public long reversedIntLinkedSet() {
+        long sum = 0;
+        for (int value : intLinkedSet.reversed()) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long reversedLinkedHashSet() {
+        long sum = 0;
+        for (int value : linkedHashSet.reversed()) {
+            sum += value;
+        }
+        return sum;
+    }
+}
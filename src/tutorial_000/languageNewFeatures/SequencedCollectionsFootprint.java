@@ -0,0 +1,80 @@
+package tutorial_000.languageNewFeatures;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.function.IntFunction;
+
+/**
+ * Prints the heap retained per element by the primitive sequenced collections and by their boxed JDK counterparts.
+ * Elements are distinct values above the Integer cache, as ids would be. Usage :
+ *   java -cp target/classes tutorial_000.languageNewFeatures.SequencedCollectionsFootprint [size]
+ */
+public class SequencedCollectionsFootprint {
+
+    private static final int FIRST_VALUE = 1_000_000;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        System.out.printf("Retained heap for %d elements :%n", size);
+        print("IntList", size, n -> {
+            IntList list = new IntList();
+            for (int i = 0; i < n; i++) {
+                list.addLastInt(FIRST_VALUE + i);
+            }
+            return list;
+        });
+        print("LongList", size, n -> {
+            LongList list = new LongList();
+            for (int i = 0; i < n; i++) {
+                list.addLastLong(FIRST_VALUE + i);
+            }
+            return list;
+        });
+        print("ArrayList<Integer>", size, n -> {
+            ArrayList<Integer> list = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                list.addLast(FIRST_VALUE + i);
+            }
+            return list;
+        });
+        print("ArrayList<Long>", size, n -> {
+            ArrayList<Long> list = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                list.addLast((long) FIRST_VALUE + i);
+            }
+            return list;
+        });
+        print("IntLinkedSet", size, n -> {
+            IntLinkedSet set = new IntLinkedSet();
+            for (int i = 0; i < n; i++) {
+                set.addInt(FIRST_VALUE + i);
+            }
+            return set;
+        });
+        print("LinkedHashSet<Integer>", size, n -> {
+            LinkedHashSet<Integer> set = new LinkedHashSet<>();
+            for (int i = 0; i < n; i++) {
+                set.add(FIRST_VALUE + i);
+            }
+            return set;
+        });
+    }
+
+    private static void print(String name, int size, IntFunction<Object> factory) {
+        long before = usedHeap();
+        Object collection = factory.apply(size);
+        long retained = usedHeap() - before;
+        Reference.reachabilityFence(collection);
+        System.out.printf("%-22s : %6d KB, %5.1f bytes per element%n", name, retained / 1024, (double) retained / size);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
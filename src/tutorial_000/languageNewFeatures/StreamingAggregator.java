@@ -0,0 +1,56 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Completion-order alternative to invokeAll + List<Future>.
+ *
+ * Tasks are created lazily from their index, and no Future is kept : each result is folded into a LongAdder as soon
+ * as its task finishes, whatever the submission order. At most maxInFlight tasks exist at the same time, so memory
+ * stays constant whatever the number of tasks.
+ */
+public final class StreamingAggregator {
+
+    private StreamingAggregator() {}
+
+    public static long sum(Executor executor, int tasksNumber, IntFunction<? extends Callable<Integer>> taskFactory,
+                           int maxInFlight) throws InterruptedException, ExecutionException {
+        LongAdder sum = new LongAdder();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        for (int i = 0; i < tasksNumber && failure.get() == null; i++) {
+            inFlight.acquire();
+            int index = i;
+            try {
+                executor.execute(() -> {
+                    try {
+                        sum.add(taskFactory.apply(index).call());
+                    } catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.release();
+                throw e;
+            }
+        }
+
+        // Taking back every permit means the last tasks are done.
+        inFlight.acquire(maxInFlight);
+
+        if (failure.get() != null) {
+            throw new ExecutionException(failure.get());
+        }
+        return sum.sum();
+    }
+}
@@ -0,0 +1,279 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * Thread-safe LRU cache built on the SequencedMap methods of LinkedHashMap.
+ *
+ * An access-ordered LinkedHashMap is an LRU list : get() moves an entry to the end, so pollFirstEntry() evicts the least
+ * recently used one. But it is not thread-safe, and as every get() reorders the map, a single lock would serialize
+ * readers too. Here keys are spread over independent stripes, each one a LinkedHashMap guarded by its own lock
+ * (a ReentrantLock, which does not pin virtual threads). The size and weight limits are split evenly between stripes, and
+ * each stripe evicts its own least recently used entries : eviction is approximately, not strictly, LRU across the cache.
+ *
+ * Entries carry the time of their last access, so the sequenced methods (firstEntry, lastEntry, pollFirstEntry,
+ * pollLastEntry, entries, reversed) still give a global recency order by merging the stripes.
+ */
+public final class StripedLruCache<K, V> {
+
+    public record Stats(long hits, long misses, long evictions) {
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    private static final class Node<V> {
+        private final V value;
+        private final long weight;
+        private long accessNanos;
+
+        private Node(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+            this.accessNanos = System.nanoTime();
+        }
+    }
+
+    private static final class Stripe<K, V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        // Access order : the first entry is the least recently used one.
+        private final LinkedHashMap<K, Node<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight;
+    }
+
+    private final Stripe<K, V>[] stripes;
+    private final long maxSizePerStripe;
+    private final long maxWeightPerStripe;
+    private final ToLongBiFunction<? super K, ? super V> weigher;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Cache of at most maxSize entries.
+     */
+    public StripedLruCache(long maxSize) {
+        this(maxSize, Long.MAX_VALUE, (key, value) -> 1);
+    }
+
+    /**
+     * Cache of at most maxSize entries, whose total weight (computed by weigher for each entry) is at most maxWeight.
+     */
+    public StripedLruCache(long maxSize, long maxWeight, ToLongBiFunction<? super K, ? super V> weigher) {
+        this(maxSize, maxWeight, weigher, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1);
+    }
+
+    public StripedLruCache(long maxSize, long maxWeight, ToLongBiFunction<? super K, ? super V> weigher, int stripeCount) {
+        if (maxSize <= 0 || maxWeight <= 0) {
+            throw new IllegalArgumentException("Size and weight limits must be positive : " + maxSize + ", " + maxWeight);
+        }
+        if (stripeCount <= 0 || Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two : " + stripeCount);
+        }
+        int stripesNumber = Math.min(stripeCount, Integer.highestOneBit((int) Math.min(maxSize, 1 << 30)));
+        @SuppressWarnings("unchecked")
+        Stripe<K, V>[] stripes = (Stripe<K, V>[]) new Stripe<?, ?>[stripesNumber];
+        for (int i = 0; i < stripesNumber; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        this.stripes = stripes;
+        this.maxSizePerStripe = Math.ceilDiv(maxSize, stripesNumber);
+        this.maxWeightPerStripe = maxWeight == Long.MAX_VALUE ? Long.MAX_VALUE : Math.ceilDiv(maxWeight, stripesNumber);
+        this.weigher = Objects.requireNonNull(weigher);
+    }
+
+    private Stripe<K, V> stripeOf(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    public V get(K key) {
+        Stripe<K, V> stripe = stripeOf(key);
+        stripe.lock.lock();
+        try {
+            Node<V> node = stripe.entries.get(key);
+            if (node == null) {
+                misses.increment();
+                return null;
+            }
+            node.accessNanos = System.nanoTime();
+            hits.increment();
+            return node.value;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces the value of key, as the most recently used entry, then evicts the least recently used entries
+     * of its stripe over the limits. Returns the previous value, or null.
+     */
+    public V put(K key, V value) {
+        Objects.requireNonNull(value);
+        long weight = weigher.applyAsLong(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative weight : " + weight);
+        }
+        Stripe<K, V> stripe = stripeOf(key);
+        stripe.lock.lock();
+        try {
+            Node<V> previous = stripe.entries.putLast(key, new Node<>(value, weight));
+            stripe.weight += weight - (previous == null ? 0 : previous.weight);
+            while (stripe.entries.size() > maxSizePerStripe || stripe.weight > maxWeightPerStripe) {
+                Map.Entry<K, Node<V>> eldest = stripe.entries.pollFirstEntry();
+                stripe.weight -= eldest.getValue().weight;
+                evictions.increment();
+            }
+            return previous == null ? null : previous.value;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public V remove(K key) {
+        Stripe<K, V> stripe = stripeOf(key);
+        stripe.lock.lock();
+        try {
+            Node<V> removed = stripe.entries.remove(key);
+            if (removed == null) {
+                return null;
+            }
+            stripe.weight -= removed.weight;
+            return removed.value;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Stripe<K, V> stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public long weight() {
+        long weight = 0;
+        for (Stripe<K, V> stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                weight += stripe.weight;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return weight;
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    // Sequenced methods : the recency order of the whole cache, from the least to the most recently used entry.
+
+    /**
+     * Least recently used entry, or null if the cache is empty.
+     */
+    public Map.Entry<K, V> firstEntry() {
+        return end(true, false);
+    }
+
+    /**
+     * Most recently used entry, or null if the cache is empty.
+     */
+    public Map.Entry<K, V> lastEntry() {
+        return end(false, false);
+    }
+
+    public Map.Entry<K, V> pollFirstEntry() {
+        return end(true, true);
+    }
+
+    public Map.Entry<K, V> pollLastEntry() {
+        return end(false, true);
+    }
+
+    /**
+     * Finds the first (or last) entry of the whole cache among the first (or last) entries of each stripe, and removes
+     * it if asked. Every stripe is locked meanwhile, so that the answer is consistent.
+     */
+    private Map.Entry<K, V> end(boolean first, boolean poll) {
+        lockAll();
+        try {
+            Stripe<K, V> endStripe = null;
+            Map.Entry<K, Node<V>> end = null;
+            for (Stripe<K, V> stripe : stripes) {
+                Map.Entry<K, Node<V>> candidate = first ? stripe.entries.firstEntry() : stripe.entries.lastEntry();
+                if (candidate != null && (end == null
+                        || (first ? candidate.getValue().accessNanos - end.getValue().accessNanos < 0
+                                  : candidate.getValue().accessNanos - end.getValue().accessNanos > 0))) {
+                    endStripe = stripe;
+                    end = candidate;
+                }
+            }
+            if (end == null) {
+                return null;
+            }
+            if (poll) {
+                endStripe.entries.remove(end.getKey());
+                endStripe.weight -= end.getValue().weight;
+            }
+            return Map.entry(end.getKey(), end.getValue().value);
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Snapshot of every entry, from the least to the most recently used one.
+     */
+    public List<Map.Entry<K, V>> entries() {
+        record Access<K, V>(Map.Entry<K, V> entry, long accessNanos) {}
+        List<Access<K, V>> accesses = new ArrayList<>();
+        lockAll();
+        try {
+            for (Stripe<K, V> stripe : stripes) {
+                stripe.entries.forEach((key, node) -> accesses.add(new Access<>(Map.entry(key, node.value), node.accessNanos)));
+            }
+        } finally {
+            unlockAll();
+        }
+        accesses.sort(Comparator.comparingLong(Access::accessNanos));
+        return accesses.stream().map(Access::entry).toList();
+    }
+
+    /**
+     * Snapshot of every entry, from the most to the least recently used one.
+     */
+    public List<Map.Entry<K, V>> reversed() {
+        return entries().reversed();
+    }
+
+    private void lockAll() {
+        for (Stripe<K, V> stripe : stripes) {
+            stripe.lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].lock.unlock();
+        }
+    }
+}
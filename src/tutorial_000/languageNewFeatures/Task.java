@@ -3,23 +3,46 @@ package tutorial_000.languageNewFeatures;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ThreadLocalRandom;
 
-public class Task implements Callable<Integer> {
+public class Task implements Callable<Integer>, IntCallable {
 
     private final int number;
+    private final long sleepMillis;
 
     public Task(int number) {
+        this(number, 1000);
+    }
+
+    public Task(int number, long sleepMillis) {
         this.number = number;
+        this.sleepMillis = sleepMillis;
+    }
+
+    @Override
+    public Integer call() {
+        return callAsInt();
     }
 
     @Override
     /**
-     * Wait 1s (1 000 ms) then return a random number.
+     * Wait sleepMillis (1s / 1 000 ms by default) then return a random number.
      */
-    public Integer call() {
+    public int callAsInt() {
+        return call(number, sleepMillis);
+    }
+
+    /**
+     * Flyweight version of Task : a single stateless definition, applied to each task number when it runs, so that no
+     * Task object has to be created nor kept per task.
+     */
+    public static IndexedIntCallable flyweight(long sleepMillis) {
+        return number -> call(number, sleepMillis);
+    }
+
+    private static int call(int number, long sleepMillis) {
         //System.out.printf("Thread %s - Task %d waiting...%n", Thread.currentThread().getName(), number);
 
         try {
-            Thread.sleep(1000);
+            Thread.sleep(sleepMillis);
         } catch (InterruptedException e) {
             System.out.printf("Thread %s - Task %d canceled.%n", Thread.currentThread().getName(), number);
             return -1;
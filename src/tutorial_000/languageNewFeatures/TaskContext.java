@@ -0,0 +1,120 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Context of a batch of tasks (request id, user, deadline...), that any code running in one of these tasks reads with
+ * get() instead of receiving it as an argument.
+ *
+ * The value is bound per batch : invokeAll(executor, value, tasks) (or bindAll, for tasks submitted otherwise) binds
+ * value in each task, whatever the executor and the thread running it. It is bound for the duration of the task only,
+ * so that a pooled thread never sees the context of a previous task. callWhere(value, task) binds it in the current
+ * thread.
+ *
+ * There are two implementations :
+ * - ScopedTaskContext, on ScopedValue : the binding is created once per batch and shared by every task, which only
+ *   pushes it on entry. Nothing is stored in the thread itself.
+ * - ThreadLocalTaskContext, on ThreadLocal : each task sets, then restores the value of its thread. A virtual thread
+ *   per task means a ThreadLocalMap created per task.
+ * ScopedValue is a preview API in java 21 : newInstance() returns a ScopedTaskContext when the JVM runs with
+ * --enable-preview, and a ThreadLocalTaskContext otherwise. TaskContextBenchmark compares both.
+ *
+ * Values are never null, as an unbound ThreadLocal reads as null.
+ */
+public abstract sealed class TaskContext<T> permits ScopedTaskContext, ThreadLocalTaskContext {
+
+    private static final boolean SCOPED_VALUE_AVAILABLE = scopedValueLoads();
+
+    TaskContext() {
+    }
+
+    /**
+     * Whether ScopedTaskContext can be used : its class, using a preview API, only loads with --enable-preview.
+     */
+    private static boolean scopedValueLoads() {
+        try {
+            Class.forName(TaskContext.class.getPackageName() + ".ScopedTaskContext");
+            return true;
+        } catch (ClassNotFoundException | UnsupportedClassVersionError e) {
+            return false;
+        }
+    }
+
+    public static boolean scopedValueAvailable() {
+        return SCOPED_VALUE_AVAILABLE;
+    }
+
+    /**
+     * New context, on ScopedValue when available, on ThreadLocal otherwise.
+     */
+    public static <T> TaskContext<T> newInstance() {
+        return SCOPED_VALUE_AVAILABLE ? ScopedTaskContext.create() : ofThreadLocal();
+    }
+
+    /**
+     * New context on ScopedValue : throws an UnsupportedOperationException if the JVM does not run with --enable-preview.
+     */
+    public static <T> TaskContext<T> ofScopedValue() {
+        if (!SCOPED_VALUE_AVAILABLE) {
+            throw new UnsupportedOperationException("ScopedValue is a preview API : run with --enable-preview");
+        }
+        return ScopedTaskContext.create();
+    }
+
+    public static <T> TaskContext<T> ofThreadLocal() {
+        return new ThreadLocalTaskContext<>();
+    }
+
+    /**
+     * Value bound in the current thread : throws a NoSuchElementException if there is none.
+     */
+    public abstract T get();
+
+    public abstract boolean isBound();
+
+    /**
+     * Binding of a value, created once per batch and used by each of its tasks.
+     */
+    interface Binding {
+        <R> R call(Callable<R> task) throws Exception;
+    }
+
+    abstract Binding bind(T value);
+
+    /**
+     * Calls task in the current thread, with value bound for its duration.
+     */
+    public <R> R callWhere(T value, Callable<R> task) throws Exception {
+        return bind(Objects.requireNonNull(value)).call(task);
+    }
+
+    /**
+     * Tasks calling each task of tasks with value bound, in whichever thread runs them.
+     */
+    public <R> List<Callable<R>> bindAll(T value, Collection<? extends Callable<R>> tasks) {
+        Binding binding = bind(Objects.requireNonNull(value));
+        List<Callable<R>> bound = new ArrayList<>(tasks.size());
+        for (Callable<R> task : tasks) {
+            bound.add(() -> binding.call(task));
+        }
+        return bound;
+    }
+
+    /**
+     * executor.invokeAll of tasks, each one running with value bound.
+     */
+    public <R> List<Future<R>> invokeAll(ExecutorService executor, T value, Collection<? extends Callable<R>> tasks) throws InterruptedException {
+        return executor.invokeAll(bindAll(value, tasks));
+    }
+
+    static NoSuchElementException notBound() {
+        return new NoSuchElementException("No task context bound");
+    }
+}
@@ -0,0 +1,49 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Times every task of a batch with System.nanoTime(), recording separately :
+ * - queue wait : from the moment the task is wrapped by timed(), to the start of its execution. submitAll wraps each
+ *   task right before submitting it, so that the wait does not include the wrapping and submission of the other tasks
+ *   of the batch,
+ * - execution : from the start to the end of its call() method.
+ */
+public final class TaskLatencyRecorder {
+
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram execution = new LatencyHistogram();
+
+    public <T> Callable<T> timed(Callable<T> task) {
+        long submitted = System.nanoTime();
+        return () -> {
+            long started = System.nanoTime();
+            queueWait.record(started - submitted);
+            try {
+                return task.call();
+            } finally {
+                execution.record(System.nanoTime() - started);
+            }
+        };
+    }
+
+    /**
+     * Submits each task of tasks, timed, to executor.
+     */
+    public <T> List<Future<T>> submitAll(ExecutorService executor, List<? extends Callable<T>> tasks) {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(executor.submit(timed(task)));
+        }
+        return futures;
+    }
+
+    public String report() {
+        return "Queue wait : " + queueWait.snapshot().summary() + System.lineSeparator()
+                + "Execution  : " + execution.snapshot().summary() + System.lineSeparator();
+    }
+}
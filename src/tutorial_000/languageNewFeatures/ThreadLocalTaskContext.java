@@ -0,0 +1,45 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.concurrent.Callable;
+
+/**
+ * TaskContext on a ThreadLocal, restored to its previous value (or removed) at the end of each task.
+ */
+final class ThreadLocalTaskContext<T> extends TaskContext<T> {
+
+    private final ThreadLocal<T> values = new ThreadLocal<>();
+
+    @Override
+    public T get() {
+        T value = values.get();
+        if (value == null) {
+            throw notBound();
+        }
+        return value;
+    }
+
+    @Override
+    public boolean isBound() {
+        return values.get() != null;
+    }
+
+    @Override
+    Binding bind(T value) {
+        return new Binding() {
+            @Override
+            public <R> R call(Callable<R> task) throws Exception {
+                T previous = values.get();
+                values.set(value);
+                try {
+                    return task.call();
+                } finally {
+                    if (previous == null) {
+                        values.remove();
+                    } else {
+                        values.set(previous);
+                    }
+                }
+            }
+        };
+    }
+}
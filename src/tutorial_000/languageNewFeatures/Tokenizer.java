@@ -0,0 +1,244 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.Objects;
+
+/**
+ * Allocation-free tokenizer of strings split at a literal delimiter, built on the range-bounded String.indexOf methods of
+ * java 21 : indexOf(char ch, int beginIndex, int endIndex) and indexOf(String str, int beginIndex, int endIndex).
+ *
+ * String.split returns an array of new strings for each line. Here a Tokenizer is created once and reset() for each
+ * line, and next() moves to the following token, which is a view on the line : its bounds (start(), end()), compared
+ * (contentEquals), parsed (parseInt, parseLong) or copied (appendTo) without creating any String. toString() is the
+ * only method copying the token into a new String.
+ *
+ *     Tokenizer tokenizer = Tokenizer.on(' ');
+ *     for (String line : lines) {
+ *         tokenizer.reset(line);
+ *         while (tokenizer.next()) {
+ *             if (tokenizer.contentEquals("ERROR")) ...
+ *         }
+ *     }
+ *
+ * Tokens are the ones of String.split(delimiter, limit), with the delimiter taken literally (not as a regular
+ * expression) : with the default limit 0, trailing empty tokens are dropped. withDelimiters() also returns each
+ * delimiter as a token (isDelimiter() is then true), as String.splitWithDelimiters(delimiter, limit) does.
+ *
+ * A Tokenizer is not thread-safe : use one per thread.
+ */
+public final class Tokenizer {
+
+    private final char delimiterChar;
+    private final String delimiter;
+    private final int delimiterLength;
+    private boolean withDelimiters;
+    private int limit;
+
+    private String input;
+    private int inputEnd;
+    // Start of the part following the current token.
+    private int position;
+    private int start;
+    private int end;
+    private boolean delimiterToken;
+    // Delimiter found at the end of the current part (-1 if none), returned as next token in withDelimiters mode.
+    private int pendingDelimiter;
+    private int parts;
+    private boolean finished;
+    // Empty parts before this index are not trailing ones (see isTrailing).
+    private int nonTrailingUntil;
+
+    private Tokenizer(char delimiterChar, String delimiter) {
+        this.delimiterChar = delimiterChar;
+        this.delimiter = delimiter;
+        this.delimiterLength = delimiter == null ? 1 : delimiter.length();
+        this.finished = true;
+    }
+
+    /**
+     * Tokenizer splitting at each occurrence of delimiter.
+     */
+    public static Tokenizer on(char delimiter) {
+        return new Tokenizer(delimiter, null);
+    }
+
+    /**
+     * Tokenizer splitting at each occurrence of delimiter, a non-empty string taken literally.
+     */
+    public static Tokenizer on(String delimiter) {
+        if (delimiter.isEmpty()) {
+            throw new IllegalArgumentException("Empty delimiter");
+        }
+        return delimiter.length() == 1 ? on(delimiter.charAt(0)) : new Tokenizer('\0', delimiter);
+    }
+
+    /**
+     * Also returns the delimiters as tokens, as String.splitWithDelimiters does.
+     */
+    public Tokenizer withDelimiters() {
+        withDelimiters = true;
+        return this;
+    }
+
+    /**
+     * Same meaning as the limit argument of String.split : if positive, the input is split at most limit - 1 times ; if
+     * zero (the default), trailing empty tokens are dropped ; if negative, they are kept.
+     */
+    public Tokenizer limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public Tokenizer reset(String input) {
+        return reset(input, 0, input.length());
+    }
+
+    /**
+     * Tokenizes input from beginIndex (inclusive) to endIndex (exclusive).
+     */
+    public Tokenizer reset(String input, int beginIndex, int endIndex) {
+        Objects.checkFromToIndex(beginIndex, endIndex, input.length());
+        this.input = input;
+        this.inputEnd = endIndex;
+        this.position = beginIndex;
+        this.start = beginIndex;
+        this.end = beginIndex;
+        this.pendingDelimiter = -1;
+        this.parts = 0;
+        this.nonTrailingUntil = beginIndex;
+        this.finished = false;
+        return this;
+    }
+
+    /**
+     * Moves to the next token : returns false when there is none left.
+     */
+    public boolean next() {
+        if (pendingDelimiter >= 0) {
+            start = pendingDelimiter;
+            end = pendingDelimiter + delimiterLength;
+            delimiterToken = true;
+            pendingDelimiter = -1;
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        int partStart = position;
+        int found = limit > 0 && parts == limit - 1 ? -1 : indexOfDelimiter(partStart);
+        int partEnd = found < 0 ? inputEnd : found;
+        if (partStart == partEnd && limit == 0 && isTrailing(partStart, found) && !(parts == 0 && found < 0)) {
+            finished = true;
+            return false;
+        }
+        parts++;
+        start = partStart;
+        end = partEnd;
+        delimiterToken = false;
+        if (found < 0) {
+            finished = true;
+        } else {
+            position = found + delimiterLength;
+            if (withDelimiters) {
+                pendingDelimiter = found;
+            }
+        }
+        return true;
+    }
+
+    private int indexOfDelimiter(int from) {
+        return delimiter == null ? input.indexOf(delimiterChar, from, inputEnd) : input.indexOf(delimiter, from, inputEnd);
+    }
+
+    /**
+     * Whether the empty part starting at partStart is trailing, i.e. followed by nothing but delimiters. Without
+     * delimiter tokens, the whole run of delimiters is checked once, whatever the number of empty parts in it.
+     */
+    private boolean isTrailing(int partStart, int found) {
+        if (found < 0) {
+            return true;
+        }
+        if (withDelimiters || partStart < nonTrailingUntil) {
+            // Delimiter tokens are never empty : only the last part may be a trailing empty one.
+            return false;
+        }
+        int index = found;
+        while (index < inputEnd && (delimiter == null ? input.charAt(index) == delimiterChar : input.startsWith(delimiter, index))) {
+            index += delimiterLength;
+        }
+        nonTrailingUntil = index;
+        return index == inputEnd;
+    }
+
+    /**
+     * Index of the first char of the current token in the input.
+     */
+    public int start() {
+        return start;
+    }
+
+    /**
+     * Index following the last char of the current token in the input.
+     */
+    public int end() {
+        return end;
+    }
+
+    public int length() {
+        return end - start;
+    }
+
+    public boolean isEmpty() {
+        return start == end;
+    }
+
+    /**
+     * Whether the current token is a delimiter (only in withDelimiters mode).
+     */
+    public boolean isDelimiter() {
+        return delimiterToken;
+    }
+
+    public String input() {
+        return input;
+    }
+
+    public char charAt(int index) {
+        return input.charAt(start + Objects.checkIndex(index, end - start));
+    }
+
+    public boolean contentEquals(String s) {
+        return s.length() == end - start && input.startsWith(s, start);
+    }
+
+    public boolean startsWith(String prefix) {
+        return prefix.length() <= end - start && input.startsWith(prefix, start);
+    }
+
+    /**
+     * Index of ch in the current token (relative to its start), or -1.
+     */
+    public int indexOf(char ch) {
+        int index = input.indexOf(ch, start, end);
+        return index < 0 ? -1 : index - start;
+    }
+
+    public int parseInt() {
+        return Integer.parseInt(input, start, end, 10);
+    }
+
+    public long parseLong() {
+        return Long.parseLong(input, start, end, 10);
+    }
+
+    public StringBuilder appendTo(StringBuilder builder) {
+        return builder.append(input, start, end);
+    }
+
+    /**
+     * Copy of the current token.
+     */
+    @Override
+    public String toString() {
+        return input == null ? "" : input.substring(start, end);
+    }
+}
@@ -0,0 +1,104 @@
+package tutorial_000.languageNewFeatures;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares Tokenizer with String.split and String.splitWithDelimiters on log lines split at spaces, per line. Each
+ * benchmark sums the token lengths, so that every token is actually produced.
+ *
+ * The point is as much the allocation rate as the time : run it with the gc profiler (main() does), and compare the
+ * gc.alloc.rate.norm lines, in bytes per line. split(" ") takes a fast path without regular expression, but still
+ * allocates an array and a String per token ; splitWithDelimiters always goes through a Pattern and a Matcher.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizerBenchmark {
+
+    private static final int LINES = 1024;
+
+    private final String[] lines = new String[LINES];
+    private final Tokenizer tokenizer = Tokenizer.on(' ');
+    private final Tokenizer tokenizerWithDelimiters = Tokenizer.on(' ').withDelimiters();
+
+    @Setup(Level.Trial)
+    public void createLines() {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] levels = {"DEBUG", "INFO", "WARN", "ERROR"};
+        for (int i = 0; i < LINES; i++) {
+            lines[i] = "2023-09-19T10:15:" + (10 + random.nextInt(50)) + "." + random.nextInt(100, 1000) + "Z "
+                    + levels[random.nextInt(levels.length)] + " [worker-" + random.nextInt(16) + "] GET /api/orders/"
+                    + random.nextInt(1_000_000) + " status=" + (random.nextInt(10) == 0 ? 500 : 200)
+                    + " took " + random.nextInt(2000) + "ms";
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public long split() {
+        long sum = 0;
+        for (String line : lines) {
+            for (String token : line.split(" ")) {
+                sum += token.length();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public long splitWithDelimiters() {
+        long sum = 0;
+        for (String line : lines) {
+            for (String token : line.splitWithDelimiters(" ", 0)) {
+                sum += token.length();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public long tokenizer() {
+        long sum = 0;
+        for (String line : lines) {
+            tokenizer.reset(line);
+            while (tokenizer.next()) {
+                sum += tokenizer.length();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public long tokenizerWithDelimiters() {
+        long sum = 0;
+        for (String line : lines) {
+            tokenizerWithDelimiters.reset(line);
+            while (tokenizerWithDelimiters.next()) {
+                sum += tokenizerWithDelimiters.length();
+            }
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TokenizerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,298 @@
+package tutorial_000.languageNewFeatures;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Compares TypeDispatcher with a plain pattern matching switch over Object, per dispatched object.
+ *
+ * - plainSwitch/dispatcher : 2, 8 or 32 type cases ("case T7 t -> ..."). With the SKEWED distribution, 90% of the objects
+ *   are of the type of the last case, the worst one for a switch testing its labels in order ; the other ones are
+ *   uniformly spread.
+ * - guardedSwitch/guardedDispatcher : four guarded cases over Integer ranges. With the SKEWED distribution, 90% of the
+ *   objects match the last guard, which the dispatcher (built with reorderGuards()) learns to test first.
+ *
+ * On a single core JDK 21 machine, the dispatcher only beats the switch with 32 cases and a SKEWED distribution (about
+ * 7 ns against 12 ns per object) : it pays off for big switches whose hot types come late. Elsewhere, the megamorphic
+ * calls of the handlers and guards cost more than the tests they save.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeDispatchBenchmark {
+
+    private static final int OBJECTS = 1024;
+
+    record T0(int value) {}
+    record T1(int value) {}
+    record T2(int value) {}
+    record T3(int value) {}
+    record T4(int value) {}
+    record T5(int value) {}
+    record T6(int value) {}
+    record T7(int value) {}
+    record T8(int value) {}
+    record T9(int value) {}
+    record T10(int value) {}
+    record T11(int value) {}
+    record T12(int value) {}
+    record T13(int value) {}
+    record T14(int value) {}
+    record T15(int value) {}
+    record T16(int value) {}
+    record T17(int value) {}
+    record T18(int value) {}
+    record T19(int value) {}
+    record T20(int value) {}
+    record T21(int value) {}
+    record T22(int value) {}
+    record T23(int value) {}
+    record T24(int value) {}
+    record T25(int value) {}
+    record T26(int value) {}
+    record T27(int value) {}
+    record T28(int value) {}
+    record T29(int value) {}
+    record T30(int value) {}
+    record T31(int value) {}
+
+    private static final IntFunction<?>[] FACTORIES = {T0::new, T1::new, T2::new, T3::new, T4::new, T5::new, T6::new, T7::new, T8::new, T9::new, T10::new, T11::new, T12::new, T13::new, T14::new, T15::new, T16::new, T17::new, T18::new, T19::new, T20::new, T21::new, T22::new, T23::new, T24::new, T25::new, T26::new, T27::new, T28::new, T29::new, T30::new, T31::new};
+
+    public enum Distribution {
+        UNIFORM, SKEWED;
+
+        int next(SplittableRandom random, int bound) {
+            return this == SKEWED && random.nextInt(10) != 0 ? bound - 1 : random.nextInt(bound);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class TypeInputs {
+        @Param({"2", "8", "32"})
+        private int cases;
+
+        @Param
+        private Distribution distribution;
+
+        private Object[] objects;
+
+        @Setup(Level.Trial)
+        public void createObjects() {
+            SplittableRandom random = new SplittableRandom(42);
+            objects = new Object[OBJECTS];
+            for (int i = 0; i < OBJECTS; i++) {
+                objects[i] = FACTORIES[distribution.next(random, cases)].apply(random.nextInt(100));
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class GuardInputs {
+        @Param
+        private Distribution distribution;
+
+        private Object[] objects;
+
+        @Setup(Level.Trial)
+        public void createObjects() {
+            SplittableRandom random = new SplittableRandom(42);
+            objects = new Object[OBJECTS];
+            for (int i = 0; i < OBJECTS; i++) {
+                objects[i] = distribution.next(random, 4) * 100 + random.nextInt(100);
+            }
+        }
+    }
+
+    private static final TypeDispatcher<Integer> DISPATCHER_2 = TypeDispatcher.<Integer>builder()
+                .on(T0.class, t -> t.value() + 0)
+                .on(T1.class, t -> t.value() + 1)
+                .otherwise(o -> -1);
+
+    private static final TypeDispatcher<Integer> DISPATCHER_8 = TypeDispatcher.<Integer>builder()
+                .on(T0.class, t -> t.value() + 0)
+                .on(T1.class, t -> t.value() + 1)
+                .on(T2.class, t -> t.value() + 2)
+                .on(T3.class, t -> t.value() + 3)
+                .on(T4.class, t -> t.value() + 4)
+                .on(T5.class, t -> t.value() + 5)
+                .on(T6.class, t -> t.value() + 6)
+                .on(T7.class, t -> t.value() + 7)
+                .otherwise(o -> -1);
+
+    private static final TypeDispatcher<Integer> DISPATCHER_32 = TypeDispatcher.<Integer>builder()
+                .on(T0.class, t -> t.value() + 0)
+                .on(T1.class, t -> t.value() + 1)
+                .on(T2.class, t -> t.value() + 2)
+                .on(T3.class, t -> t.value() + 3)
+                .on(T4.class, t -> t.value() + 4)
+                .on(T5.class, t -> t.value() + 5)
+                .on(T6.class, t -> t.value() + 6)
+                .on(T7.class, t -> t.value() + 7)
+                .on(T8.class, t -> t.value() + 8)
+                .on(T9.class, t -> t.value() + 9)
+                .on(T10.class, t -> t.value() + 10)
+                .on(T11.class, t -> t.value() + 11)
+                .on(T12.class, t -> t.value() + 12)
+                .on(T13.class, t -> t.value() + 13)
+                .on(T14.class, t -> t.value() + 14)
+                .on(T15.class, t -> t.value() + 15)
+                .on(T16.class, t -> t.value() + 16)
+                .on(T17.class, t -> t.value() + 17)
+                .on(T18.class, t -> t.value() + 18)
+                .on(T19.class, t -> t.value() + 19)
+                .on(T20.class, t -> t.value() + 20)
+                .on(T21.class, t -> t.value() + 21)
+                .on(T22.class, t -> t.value() + 22)
+                .on(T23.class, t -> t.value() + 23)
+                .on(T24.class, t -> t.value() + 24)
+                .on(T25.class, t -> t.value() + 25)
+                .on(T26.class, t -> t.value() + 26)
+                .on(T27.class, t -> t.value() + 27)
+                .on(T28.class, t -> t.value() + 28)
+                .on(T29.class, t -> t.value() + 29)
+                .on(T30.class, t -> t.value() + 30)
+                .on(T31.class, t -> t.value() + 31)
+                .otherwise(o -> -1);
+
+    private static final TypeDispatcher<Integer> GUARDED_DISPATCHER = TypeDispatcher.<Integer>builder()
+            .when(Integer.class, i -> i < 100, i -> i)
+            .when(Integer.class, i -> i >= 100 && i < 200, i -> i - 100)
+            .when(Integer.class, i -> i >= 200 && i < 300, i -> i - 200)
+            .when(Integer.class, i -> i >= 300, i -> i - 300)
+            .reorderGuards()
+            .otherwise(o -> -1);
+
+    private static int switch2(Object o) {
+        return switch (o) {
+            case T0 t -> t.value() + 0;
+            case T1 t -> t.value() + 1;
+            default -> -1;
+        };
+    }
+
+    private static int switch8(Object o) {
+        return switch (o) {
+            case T0 t -> t.value() + 0;
+            case T1 t -> t.value() + 1;
+            case T2 t -> t.value() + 2;
+            case T3 t -> t.value() + 3;
+            case T4 t -> t.value() + 4;
+            case T5 t -> t.value() + 5;
+            case T6 t -> t.value() + 6;
+            case T7 t -> t.value() + 7;
+            default -> -1;
+        };
+    }
+
+    private static int switch32(Object o) {
+        return switch (o) {
+            case T0 t -> t.value() + 0;
+            case T1 t -> t.value() + 1;
+            case T2 t -> t.value() + 2;
+            case T3 t -> t.value() + 3;
+            case T4 t -> t.value() + 4;
+            case T5 t -> t.value() + 5;
+            case T6 t -> t.value() + 6;
+            case T7 t -> t.value() + 7;
+            case T8 t -> t.value() + 8;
+            case T9 t -> t.value() + 9;
+            case T10 t -> t.value() + 10;
+            case T11 t -> t.value() + 11;
+            case T12 t -> t.value() + 12;
+            case T13 t -> t.value() + 13;
+            case T14 t -> t.value() + 14;
+            case T15 t -> t.value() + 15;
+            case T16 t -> t.value() + 16;
+            case T17 t -> t.value() + 17;
+            case T18 t -> t.value() + 18;
+            case T19 t -> t.value() + 19;
+            case T20 t -> t.value() + 20;
+            case T21 t -> t.value() + 21;
+            case T22 t -> t.value() + 22;
+            case T23 t -> t.value() + 23;
+            case T24 t -> t.value() + 24;
+            case T25 t -> t.value() + 25;
+            case T26 t -> t.value() + 26;
+            case T27 t -> t.value() + 27;
+            case T28 t -> t.value() + 28;
+            case T29 t -> t.value() + 29;
+            case T30 t -> t.value() + 30;
+            case T31 t -> t.value() + 31;
+            default -> -1;
+        };
+    }
+
+    private static int guardedSwitch(Object o) {
+        return switch (o) {
+            case Integer i when i < 100 -> i;
+            case Integer i when i >= 100 && i < 200 -> i - 100;
+            case Integer i when i >= 200 && i < 300 -> i - 200;
+            case Integer i when i >= 300 -> i - 300;
+            default -> -1;
+        };
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OBJECTS)
+    public int plainSwitch(TypeInputs inputs) {
+        int sum = 0;
+        switch (inputs.cases) {
+            case 2 -> {
+                for (Object o : inputs.objects) {
+                    sum += switch2(o);
+                }
+            }
+            case 8 -> {
+                for (Object o : inputs.objects) {
+                    sum += switch8(o);
+                }
+            }
+            default -> {
+                for (Object o : inputs.objects) {
+                    sum += switch32(o);
+                }
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OBJECTS)
+    public int dispatcher(TypeInputs inputs) {
+        TypeDispatcher<Integer> dispatcher = switch (inputs.cases) {
+            case 2 -> DISPATCHER_2;
+            case 8 -> DISPATCHER_8;
+            default -> DISPATCHER_32;
+        };
+        int sum = 0;
+        for (Object o : inputs.objects) {
+            sum += dispatcher.dispatch(o);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OBJECTS)
+    public int guardedSwitch(GuardInputs inputs) {
+        int sum = 0;
+        for (Object o : inputs.objects) {
+            sum += guardedSwitch(o);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OBJECTS)
+    public int guardedDispatcher(GuardInputs inputs) {
+        int sum = 0;
+        for (Object o : inputs.objects) {
+            sum += GUARDED_DISPATCHER.dispatch(o);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,215 @@
+package tutorial_000.languageNewFeatures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Reusable type dispatcher, for hot paths where a pattern matching switch over Object shows up in profiles.
+ *
+ * A switch like the one of _004_PatternMatchingForSwitch.printPatternMachting() is compiled into a type switch that
+ * tests the labels one after the other for each call : the more cases, the slower the dispatch of the last ones. Here,
+ * cases are declared once with a builder :
+ *
+ *     TypeDispatcher<String> dispatcher = TypeDispatcher.<String>builder()
+ *             .when(String.class, s -> s.length() > 5, s -> "Long String : " + s.toUpperCase())
+ *             .on(String.class, s -> "Short String : " + s.toLowerCase())
+ *             .on(Integer.class, i -> "Integer : " + i * i)
+ *             .otherwise(o -> "Something else.");
+ *
+ * The first call for a given receiver class computes the cases that may match it (a ClassValue caches that decision per
+ * class) : cases of unrelated types are never tested again, and cases declared after an unguarded case matching the
+ * class are dropped, as they are unreachable. A receiver class with a single candidate case is dispatched without any
+ * test.
+ *
+ * As for a switch, guarded cases are tried in their declaration order. If the guards of the cases of a given receiver
+ * class never match the same object (as "s.length() > 5" and "s.length() <= 5"), the order does not matter, and
+ * reorderGuards() lets the dispatcher try the most frequently matched guard first. Frequencies are counted per receiver
+ * class without synchronization (a lost increment only delays a reordering), and halved at each reordering so that the
+ * order follows changes of the traffic.
+ *
+ * Handlers and guards are lambdas called from the same call sites, which the JIT cannot inline : for a few cases, or
+ * when the receiver class changes at every call, the switch generated by javac stays faster. Check with
+ * TypeDispatchBenchmark before replacing a switch.
+ */
+public final class TypeDispatcher<R> {
+
+    /**
+     * Number of dispatches of a receiver class between two reorderings of its guarded cases. A power of two.
+     */
+    private static final int REORDER_PERIOD = 1 << 12;
+
+    private record Case(Class<?> type, Predicate<Object> guard, Function<Object, ?> handler) {
+        boolean guarded() {
+            return guard != null;
+        }
+    }
+
+    public static final class Builder<R> {
+        private final List<Case> cases = new ArrayList<>();
+        private boolean reorderGuards;
+
+        private Builder() {
+        }
+
+        /**
+         * Case "case T t when guard.test(t) -> handler.apply(t)".
+         */
+        @SuppressWarnings("unchecked")
+        public <T> Builder<R> when(Class<T> type, Predicate<? super T> guard, Function<? super T, ? extends R> handler) {
+            cases.add(new Case(Objects.requireNonNull(type), (Predicate<Object>) Objects.requireNonNull(guard),
+                    (Function<Object, ?>) Objects.requireNonNull(handler)));
+            return this;
+        }
+
+        /**
+         * Case "case T t -> handler.apply(t)".
+         */
+        @SuppressWarnings("unchecked")
+        public <T> Builder<R> on(Class<T> type, Function<? super T, ? extends R> handler) {
+            cases.add(new Case(Objects.requireNonNull(type), null, (Function<Object, ?>) Objects.requireNonNull(handler)));
+            return this;
+        }
+
+        /**
+         * Declares that, for any receiver, at most one of the guarded cases that may match its class accepts it.
+         */
+        public Builder<R> reorderGuards() {
+            reorderGuards = true;
+            return this;
+        }
+
+        /**
+         * Builds the dispatcher, with the default branch : handler is applied to objects matching no case.
+         */
+        public TypeDispatcher<R> otherwise(Function<Object, ? extends R> handler) {
+            List<Case> allCases = new ArrayList<>(cases);
+            allCases.add(new Case(Object.class, null, Objects.requireNonNull(handler)));
+            return new TypeDispatcher<>(allCases.toArray(Case[]::new), reorderGuards);
+        }
+
+        /**
+         * Builds the dispatcher without default branch : dispatching an object matching no case throws an
+         * IllegalArgumentException.
+         */
+        public TypeDispatcher<R> build() {
+            return otherwise(o -> {
+                throw new IllegalArgumentException("No case for " + o.getClass().getName());
+            });
+        }
+    }
+
+    /**
+     * Guarded cases of a receiver class in the order they are tried. Replaced, never modified, when reordering :
+     * hits[i] counts the matches of guarded[i].
+     */
+    private record Order(Case[] guarded, long[] hits) {}
+
+    /**
+     * Cases that may match a receiver class : guarded cases, then the unguarded case applied when no guard matches.
+     */
+    private static final class Decision {
+        private final Class<?> type;
+        private final boolean reorderGuards;
+        private final Case terminal;
+        private volatile Order order;
+        private int dispatches;
+
+        private Decision(Class<?> type, List<Case> guarded, Case terminal, boolean reorderGuards) {
+            this.type = type;
+            this.order = new Order(guarded.toArray(Case[]::new), new long[guarded.size()]);
+            this.terminal = terminal;
+            this.reorderGuards = reorderGuards && guarded.size() > 1;
+        }
+
+        private Object apply(Object o) {
+            Order order = this.order;
+            Case[] guarded = order.guarded();
+            for (int i = 0; i < guarded.length; i++) {
+                Case c = guarded[i];
+                if (c.guard().test(o)) {
+                    if (reorderGuards) {
+                        count(order, i);
+                    }
+                    return c.handler().apply(o);
+                }
+            }
+            return terminal.handler().apply(o);
+        }
+
+        private void count(Order order, int index) {
+            order.hits()[index]++;
+            if ((++dispatches & (REORDER_PERIOD - 1)) == 0) {
+                reorder();
+            }
+        }
+
+        private synchronized void reorder() {
+            Case[] guarded = order.guarded();
+            long[] hits = order.hits();
+            Integer[] indexes = new Integer[guarded.length];
+            Arrays.setAll(indexes, i -> i);
+            // Stable sort : guards with the same frequency keep their relative order.
+            Arrays.sort(indexes, (a, b) -> Long.compare(hits[b], hits[a]));
+            Case[] reordered = new Case[guarded.length];
+            long[] halved = new long[guarded.length];
+            for (int i = 0; i < indexes.length; i++) {
+                reordered[i] = guarded[indexes[i]];
+                halved[i] = hits[indexes[i]] >>> 1;
+            }
+            order = new Order(reordered, halved);
+        }
+    }
+
+    private final Case[] cases;
+    private final boolean reorderGuards;
+    private final ClassValue<Decision> decisions = new ClassValue<>() {
+        @Override
+        protected Decision computeValue(Class<?> type) {
+            return decide(type);
+        }
+    };
+    // Decision of the last dispatched receiver class, checked before the ClassValue lookup : messages often come in runs
+    // of the same type. Only written when the receiver class changes.
+    private volatile Decision lastDecision;
+
+    private TypeDispatcher(Case[] cases, boolean reorderGuards) {
+        this.cases = cases;
+        this.reorderGuards = reorderGuards;
+    }
+
+    public static <R> Builder<R> builder() {
+        return new Builder<>();
+    }
+
+    private Decision decide(Class<?> type) {
+        List<Case> guarded = new ArrayList<>();
+        for (Case c : cases) {
+            if (c.type().isAssignableFrom(type)) {
+                if (!c.guarded()) {
+                    return new Decision(type, guarded, c, reorderGuards);
+                }
+                guarded.add(c);
+            }
+        }
+        // Unreachable : the default branch matches any class.
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Applies the handler of the first case matching o, as a switch over o would.
+     */
+    @SuppressWarnings("unchecked")
+    public R dispatch(Object o) {
+        Class<?> type = o.getClass();
+        Decision decision = lastDecision;
+        if (decision == null || decision.type != type) {
+            decision = decisions.get(type);
+            lastDecision = decision;
+        }
+        return (R) decision.apply(o);
+    }
+}
@@ -0,0 +1,67 @@
+package tutorial_000.languageNewFeatures;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API implementation of BulkClamp : each step clamps a whole vector with max(min) then min(max), the tail being
+ * handled by ScalarClamp. As Math.clamp, vector max and min propagate NaN and order -0.0 before 0.0, so that both give
+ * the same results. It is the only class of BulkClamp using jdk.incubator.vector (see BulkClamp.vectorAvailable()).
+ */
+final class VectorClamp {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorClamp() {
+    }
+
+    static void clamp(int[] src, int[] dst, int min, int max, int from, int to) {
+        IntVector low = IntVector.broadcast(INTS, min);
+        IntVector high = IntVector.broadcast(INTS, max);
+        int upperBound = from + INTS.loopBound(to - from);
+        int i = from;
+        for (; i < upperBound; i += INTS.length()) {
+            IntVector.fromArray(INTS, src, i).max(low).min(high).intoArray(dst, i);
+        }
+        ScalarClamp.clamp(src, dst, min, max, i, to);
+    }
+
+    static void clamp(long[] src, long[] dst, long min, long max, int from, int to) {
+        LongVector low = LongVector.broadcast(LONGS, min);
+        LongVector high = LongVector.broadcast(LONGS, max);
+        int upperBound = from + LONGS.loopBound(to - from);
+        int i = from;
+        for (; i < upperBound; i += LONGS.length()) {
+            LongVector.fromArray(LONGS, src, i).max(low).min(high).intoArray(dst, i);
+        }
+        ScalarClamp.clamp(src, dst, min, max, i, to);
+    }
+
+    static void clamp(float[] src, float[] dst, float min, float max, int from, int to) {
+        FloatVector low = FloatVector.broadcast(FLOATS, min);
+        FloatVector high = FloatVector.broadcast(FLOATS, max);
+        int upperBound = from + FLOATS.loopBound(to - from);
+        int i = from;
+        for (; i < upperBound; i += FLOATS.length()) {
+            FloatVector.fromArray(FLOATS, src, i).max(low).min(high).intoArray(dst, i);
+        }
+        ScalarClamp.clamp(src, dst, min, max, i, to);
+    }
+
+    static void clamp(double[] src, double[] dst, double min, double max, int from, int to) {
+        DoubleVector low = DoubleVector.broadcast(DOUBLES, min);
+        DoubleVector high = DoubleVector.broadcast(DOUBLES, max);
+        int upperBound = from + DOUBLES.loopBound(to - from);
+        int i = from;
+        for (; i < upperBound; i += DOUBLES.length()) {
+            DoubleVector.fromArray(DOUBLES, src, i).max(low).min(high).intoArray(dst, i);
+        }
+        ScalarClamp.clamp(src, dst, min, max, i, to);
+    }
+}
@@ -0,0 +1,105 @@
+package tutorial_000.languageNewFeatures;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import tutorial_000.languageNewFeatures.BatchGeometry.Pairs2D;
+import tutorial_000.languageNewFeatures.BatchGeometry.Pairs3D;
+
+/**
+ * Vector API implementation of BatchGeometry. It is the only class of BatchGeometry using jdk.incubator.vector : it
+ * must not be loaded unless the module is resolved (see BatchGeometry.vectorAvailable()), and the tail of each batch
+ * that does not fill a whole vector is handled by ScalarGeometry.
+ *
+ * Distances are computed on doubles : each step loads DOUBLES.length() ints of each column into an int vector half as
+ * wide, and converts it to a double vector before subtracting (so that the subtraction cannot overflow).
+ */
+final class VectorGeometry {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> HALF_INTS = VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+    private VectorGeometry() {
+    }
+
+    private static DoubleVector load(int[] column, int i) {
+        return (DoubleVector) IntVector.fromArray(HALF_INTS, column, i).convertShape(VectorOperators.I2D, DOUBLES, 0);
+    }
+
+    private static DoubleVector delta(int[] from, int[] to, int i) {
+        return load(to, i).sub(load(from, i));
+    }
+
+    static void distances(Pairs2D pairs, double[] distances) {
+        int[] fromX = pairs.fromX(), fromY = pairs.fromY(), toX = pairs.toX(), toY = pairs.toY();
+        int upperBound = DOUBLES.loopBound(pairs.length());
+        for (int i = 0; i < upperBound; i += DOUBLES.length()) {
+            DoubleVector dx = delta(fromX, toX, i);
+            DoubleVector dy = delta(fromY, toY, i);
+            dx.fma(dx, dy.mul(dy)).sqrt().intoArray(distances, i);
+        }
+        ScalarGeometry.distances(pairs, distances, upperBound, pairs.length());
+    }
+
+    static void distances(Pairs3D pairs, double[] distances) {
+        int[] fromX = pairs.fromX(), fromY = pairs.fromY(), fromZ = pairs.fromZ();
+        int[] toX = pairs.toX(), toY = pairs.toY(), toZ = pairs.toZ();
+        int upperBound = DOUBLES.loopBound(pairs.length());
+        for (int i = 0; i < upperBound; i += DOUBLES.length()) {
+            DoubleVector dx = delta(fromX, toX, i);
+            DoubleVector dy = delta(fromY, toY, i);
+            DoubleVector dz = delta(fromZ, toZ, i);
+            dx.fma(dx, dy.fma(dy, dz.mul(dz))).sqrt().intoArray(distances, i);
+        }
+        ScalarGeometry.distances(pairs, distances, upperBound, pairs.length());
+    }
+
+    static double totalDistance(Pairs2D pairs) {
+        int[] fromX = pairs.fromX(), fromY = pairs.fromY(), toX = pairs.toX(), toY = pairs.toY();
+        int upperBound = DOUBLES.loopBound(pairs.length());
+        DoubleVector total = DoubleVector.zero(DOUBLES);
+        for (int i = 0; i < upperBound; i += DOUBLES.length()) {
+            DoubleVector dx = delta(fromX, toX, i);
+            DoubleVector dy = delta(fromY, toY, i);
+            total = total.add(dx.fma(dx, dy.mul(dy)).sqrt());
+        }
+        return total.reduceLanes(VectorOperators.ADD) + ScalarGeometry.totalDistance(pairs, upperBound, pairs.length());
+    }
+
+    static double totalDistance(Pairs3D pairs) {
+        int[] fromX = pairs.fromX(), fromY = pairs.fromY(), fromZ = pairs.fromZ();
+        int[] toX = pairs.toX(), toY = pairs.toY(), toZ = pairs.toZ();
+        int upperBound = DOUBLES.loopBound(pairs.length());
+        DoubleVector total = DoubleVector.zero(DOUBLES);
+        for (int i = 0; i < upperBound; i += DOUBLES.length()) {
+            DoubleVector dx = delta(fromX, toX, i);
+            DoubleVector dy = delta(fromY, toY, i);
+            DoubleVector dz = delta(fromZ, toZ, i);
+            total = total.add(dx.fma(dx, dy.fma(dy, dz.mul(dz))).sqrt());
+        }
+        return total.reduceLanes(VectorOperators.ADD) + ScalarGeometry.totalDistance(pairs, upperBound, pairs.length());
+    }
+
+    static void displacements(Pairs2D pairs, int[] dx, int[] dy) {
+        displacements(pairs.fromX(), pairs.toX(), dx, pairs.length());
+        displacements(pairs.fromY(), pairs.toY(), dy, pairs.length());
+    }
+
+    static void displacements(Pairs3D pairs, int[] dx, int[] dy, int[] dz) {
+        displacements(pairs.fromX(), pairs.toX(), dx, pairs.length());
+        displacements(pairs.fromY(), pairs.toY(), dy, pairs.length());
+        displacements(pairs.fromZ(), pairs.toZ(), dz, pairs.length());
+    }
+
+    private static void displacements(int[] from, int[] to, int[] delta, int length) {
+        int upperBound = INTS.loopBound(length);
+        for (int i = 0; i < upperBound; i += INTS.length()) {
+            IntVector.fromArray(INTS, to, i).sub(IntVector.fromArray(INTS, from, i)).intoArray(delta, i);
+        }
+        ScalarGeometry.displacements(from, to, delta, upperBound, length);
+    }
+}
@@ -0,0 +1,63 @@
+package tutorial_000.languageNewFeatures;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH counterpart of executePlatformThreads / executeVirtualThreads from _001_VirtualThreads.
+ *
+ * Each benchmark invocation submits a whole batch of Task through invokeAll and sums the results, so :
+ * - Throughput mode gives the number of batches completed per second.
+ * - SampleTime mode gives the batch completion latency distribution (p50, p90, p99...).
+ * Allocation rate is obtained by adding the GC profiler on the command line :
+ *   java -jar target/benchmarks.jar VirtualThreadsBenchmark -prof gc
+ *
+ * The full parameter matrix is long to run (a fixed pool of 100 threads needs tasksNumber * blockingMillis / 100 ms
+ * per batch), so it may be narrowed with -p, e.g. "-p tasksNumber=1000000 -p executorKind=VIRTUAL_PER_TASK".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class VirtualThreadsBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int tasksNumber;
+
+    @Param({"FIXED_POOL", "VIRTUAL_PER_TASK", "FORK_JOIN"})
+    private ExecutorKind executorKind;
+
+    @Param({"0", "1", "10"})
+    private long blockingMillis;
+
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void createTasks() {
+        tasks = new ArrayList<>(tasksNumber);
+        for (int i = 0; i < tasksNumber; i++) {
+            tasks.add(new Task(i, blockingMillis));
+        }
+    }
+
+    @Benchmark
+    public long invokeAll() throws InterruptedException, ExecutionException {
+        try (ExecutorService executor = executorKind.newExecutor()) {
+            List<Future<Integer>> futures = executor.invokeAll(tasks);
+
+            long sum = 0;
+            for (Future<Integer> future : futures) {
+                sum += future.get();
+            }
+            return sum;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package tutorial_000.languageNewFeatures;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.*;
+import java.util.function.BiFunction;
 
 
 public class _001_VirtualThreads {
@@ -42,7 +44,8 @@ public class _001_VirtualThreads {
          * The carrier thread pool is a ForkJoinPool : a pool where each thread has its own queue and “steals” tasks from
          * other threads' queues should its own queue be empty. Its size is set by default to
          * Runtime.getRuntime().availableProcessors() and can be adjusted with the VM option
-         * jdk.virtualThreadScheduler.parallelism.
+         * jdk.virtualThreadScheduler.parallelism. The CarrierSchedulerSweep class measures the effect of this option (and
+         * of jdk.virtualThreadScheduler.maxPoolSize) on mixes of CPU-bound and blocking tasks.
          *
          * Let see an example :
          * - We have 3 tasks
@@ -84,7 +87,89 @@ public class _001_VirtualThreads {
          * - Virtual threads - 1_000_000 tasks - approx. 3.5sec
          *
          * Thus, Virtual Threads are executed incredibly faster than Platform Threads.
+         *
+         * Besides the total time, both executions print the distribution (p50, p90, p99, p99.9 and max) of the time each
+         * task waited before starting (queue wait) and of the time it took to execute, recorded by TaskLatencyRecorder.
+         * With platform threads, most of the latency is queue wait : tasks wait for one of the 100 threads to be free.
+         */
+
+        /*
+         * Streaming aggregation
+         *
+         * executeVirtualThreads(1_000_000) keeps a List of one million Task, then invokeAll returns one million Future
+         * that are read in submission order : peak heap grows with the number of tasks, and the sum waits for the
+         * slowest early task. StreamingAggregator creates tasks lazily from their index, folds each result into a
+         * LongAdder as soon as it is available, and keeps at most maxInFlight tasks alive, so it runs in constant memory.
+         * Compare the "peak heap" printed by both executions :
+         */
+        executeVirtualThreadsStreaming(1_000_000, 100_000);
+
+        /*
+         * Bounding concurrency
+         *
+         * Executors.newVirtualThreadPerTaskExecutor() has no limit on the number of tasks running at the same time. If
+         * each task calls a downstream service (a database with a pool of 200 connections for instance), one million
+         * tasks means one million concurrent calls. BoundedVirtualThreadExecutor is a drop-in ExecutorService that still
+         * gives each task its own virtual thread, but admits at most maxConcurrency of them at once through a fair
+         * Semaphore. Here 1 000 tasks with 200 concurrent tasks take approximately 5 seconds, and the admission queue
+         * depth and wait time are printed :
+         */
+        executeBoundedVirtualThreads(1_000, 200);
+
+        /*
+         * Detecting pinning
+         *
+         * Task blocks in Thread.sleep(), which unmounts the virtual thread. PinnedTask blocks the same way, but inside a
+         * synchronized block : its virtual thread stays pinned to its carrier thread, and only as many PinnedTask as
+         * carrier threads may wait at the same time. Pinning is hard to see in the code of real tasks, but the JVM reports
+         * it through the JFR event jdk.VirtualThreadPinned. PinningMonitor streams these events while the tasks run, and
+         * summarizes the pinned duration per task type. Task is not reported, whereas each PinnedTask is :
          */
+        executeVirtualThreadsWithPinningReport("Task", 100, Task::new);
+        executeVirtualThreadsWithPinningReport("PinnedTask", 100, PinnedTask::new);
+
+        /*
+         * Deadlines and cancellation
+         *
+         * invokeAll waits for every task, so one slow task delays the whole batch. invokeAll(tasks, timeout, unit) sets a
+         * deadline for the batch : when it is reached, every task not done yet is cancelled and its thread interrupted
+         * (that's when Task prints "canceled"). DeadlineBatch uses it and computes the sum of the tasks that completed in
+         * time. Here 10 tasks out of 1 000 take 5 seconds, but the batch returns after approximately 2 seconds :
+         */
+        executeVirtualThreadsWithDeadline(1_000, Duration.ofSeconds(2));
+
+        /*
+         * Primitive results
+         *
+         * Task implements Callable<Integer> : one million tasks box one million Integer, wrapped into one million Future,
+         * then unboxed by "sum += future.get()". Task also implements IntCallable, whose callAsInt() returns an int, and
+         * IntResults.invokeAll writes the result of each task into its slot of a preallocated int[] : apart from the
+         * virtual threads themselves, no object is allocated per result. Going further, IntResults.invokeRange applies
+         * a single Task.flyweight definition to each index while submitting, so that the List of one million Task is
+         * not needed either (FlyweightHarness compares heap footprint and GC pauses of both ways).
+         */
+        executeVirtualThreadsIntResults(1_000_000);
+
+        /*
+         * Network servers
+         *
+         * Task only sleeps. LoopbackServer is a real TCP request/response server on the loopback interface, each request
+         * waiting serviceMillis as if it called a downstream service, with connections served by blocking sockets on a
+         * fixed pool of platform threads, by blocking sockets on one virtual thread each, or by a single NIO Selector
+         * thread. LoopbackServerHarness loads each one with 1 000 to 100 000 concurrent connections, and prints
+         * requests/s, p50/p99 latency and the RSS of the server. The fixed pool cannot serve more connections than it has
+         * threads, whereas virtual threads keep the blocking code and scale with the connections, close to the selector.
+         */
+
+        /*
+         * Task context
+         *
+         * Real tasks often read the context of their request (id, user...) from ThreadLocals set by the code submitting
+         * them. TaskContext binds such a value to a whole batch : invokeAll(executor, value, tasks) runs each task with the
+         * value bound, and any code of the task reads it with get(). It relies on ScopedValue, a preview API in java 21,
+         * when the JVM runs with --enable-preview, and on a ThreadLocal otherwise (TaskContextBenchmark compares both) :
+         */
+        executeVirtualThreadsWithContext(100_000);
 
         /*
          * How to Create Virtual Threads?
@@ -215,17 +300,95 @@ public class _001_VirtualThreads {
         return Thread.ofPlatform();
     }
 
+    private static void executeBoundedVirtualThreads(int tasksNumber, int maxConcurrency) {
+        System.out.println("Will begin bounded Virtual threads execution for " + tasksNumber + "tasks.");
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor(maxConcurrency);
+        try (executor) {
+            List<Task> tasks = new ArrayList<>();
+            for (int i = 0; i < tasksNumber; i++) {
+                tasks.add(new Task(i));
+            }
+
+            long time = System.currentTimeMillis();
+
+            List<Future<Integer>> futures = executor.invokeAll(tasks);
+
+            long sum = 0;
+            for (Future<Integer> future : futures) {
+                sum += future.get();
+            }
+
+            time = System.currentTimeMillis() - time;
+
+            System.out.println("Bounded Virtual threads finish : sum = " + sum + "; time = " + time + " ms");
+        } catch (ExecutionException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        System.out.println("Bounded Virtual threads metrics : " + executor.metrics());
+        System.out.println("---------------------------");
+    }
+
+    private static void executeVirtualThreadsWithPinningReport(String label, int tasksNumber, BiFunction<Integer, Long, Task> taskFactory) {
+        System.out.println("Will begin Virtual threads execution with pinning report for " + tasksNumber + " " + label + ".");
+        try (PinningMonitor monitor = PinningMonitor.start(Task.class, PinnedTask.class)) {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Task> tasks = new ArrayList<>();
+                for (int i = 0; i < tasksNumber; i++) {
+                    tasks.add(taskFactory.apply(i, 50L));
+                }
+
+                long time = System.currentTimeMillis();
+
+                List<Future<Integer>> futures = executor.invokeAll(tasks);
+
+                long sum = 0;
+                for (Future<Integer> future : futures) {
+                    sum += future.get();
+                }
+
+                time = System.currentTimeMillis() - time;
+
+                System.out.println("Virtual threads finish : sum = " + sum + "; time = " + time + " ms");
+            } catch (ExecutionException | InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            monitor.stop();
+            System.out.print("Pinning report : " + monitor.report());
+        }
+        System.out.println("---------------------------");
+    }
+
+    private static void executeVirtualThreadsWithDeadline(int tasksNumber, Duration deadline) {
+        System.out.println("Will begin Virtual threads execution with a deadline for " + tasksNumber + "tasks.");
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Task> tasks = new ArrayList<>();
+            for (int i = 0; i < tasksNumber; i++) {
+                tasks.add(new Task(i, i % 100 == 0 ? 5_000 : 1_000));
+            }
+
+            DeadlineBatch.Result result = DeadlineBatch.sum(executor, tasks, deadline);
+
+            System.out.println("Virtual threads finish : sum = " + result.sum() + "; completed = " + result.completed()
+                    + "; cancelled = " + result.cancelled() + "; time = " + result.elapsedMillis() + " ms");
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        System.out.println("---------------------------");
+    }
+
     private static void executeVirtualThreads(int tasksNumber) {
         System.out.println("Will begin Virtual threads execution for " + tasksNumber + "tasks.");
+        PeakHeap.reset();
         try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
             List<Task> tasks = new ArrayList<>();
             for (int i = 0; i < tasksNumber; i++) {
                 tasks.add(new Task(i));
             }
 
+            TaskLatencyRecorder latencies = new TaskLatencyRecorder();
             long time = System.currentTimeMillis();
 
-            List<Future<Integer>> futures = executor.invokeAll(tasks);
+            List<Future<Integer>> futures = latencies.submitAll(executor, tasks);
 
             long sum = 0;
             for (Future<Integer> future : futures) {
@@ -234,7 +397,77 @@ public class _001_VirtualThreads {
 
             time = System.currentTimeMillis() - time;
 
-            System.out.println("Virtual threads finish : sum = " + sum + "; time = " + time + " ms");
+            System.out.println("Virtual threads finish : sum = " + sum + "; time = " + time + " ms; peak heap = " + PeakHeap.megaBytes() + " MB");
+            System.out.print(latencies.report());
+        } catch (ExecutionException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        System.out.println("---------------------------");
+    }
+
+    private static void executeVirtualThreadsStreaming(int tasksNumber, int maxInFlight) {
+        System.out.println("Will begin Virtual threads streaming execution for " + tasksNumber + "tasks.");
+        PeakHeap.reset();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long time = System.currentTimeMillis();
+
+            long sum = StreamingAggregator.sum(executor, tasksNumber, Task::new, maxInFlight);
+
+            time = System.currentTimeMillis() - time;
+
+            System.out.println("Virtual threads streaming finish : sum = " + sum + "; time = " + time + " ms; peak heap = " + PeakHeap.megaBytes() + " MB");
+        } catch (ExecutionException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        System.out.println("---------------------------");
+    }
+
+    private static void executeVirtualThreadsIntResults(int tasksNumber) {
+        System.out.println("Will begin Virtual threads execution with int results for " + tasksNumber + "tasks.");
+        PeakHeap.reset();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Task> tasks = new ArrayList<>();
+            for (int i = 0; i < tasksNumber; i++) {
+                tasks.add(new Task(i));
+            }
+            int[] results = new int[tasksNumber];
+
+            long time = System.currentTimeMillis();
+
+            IntResults.invokeAll(executor, tasks, results);
+            long sum = IntResults.sum(results, tasksNumber);
+
+            time = System.currentTimeMillis() - time;
+
+            System.out.println("Virtual threads int results finish : sum = " + sum + "; time = " + time + " ms; peak heap = " + PeakHeap.megaBytes() + " MB");
+        } catch (ExecutionException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        System.out.println("---------------------------");
+    }
+
+    private static void executeVirtualThreadsWithContext(int tasksNumber) {
+        TaskContext<String> requestId = TaskContext.newInstance();
+        System.out.println("Will begin Virtual threads execution with a " + requestId.getClass().getSimpleName() + " for " + tasksNumber + "tasks.");
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < tasksNumber; i++) {
+                Task task = new Task(i);
+                tasks.add(() -> requestId.get().isEmpty() ? 0 : task.call());
+            }
+
+            long time = System.currentTimeMillis();
+
+            List<Future<Integer>> futures = requestId.invokeAll(executor, "request-42", tasks);
+
+            long sum = 0;
+            for (Future<Integer> future : futures) {
+                sum += future.get();
+            }
+
+            time = System.currentTimeMillis() - time;
+
+            System.out.println("Virtual threads with context finish : sum = " + sum + "; time = " + time + " ms");
         } catch (ExecutionException | InterruptedException e) {
             throw new RuntimeException(e);
         }
@@ -252,9 +485,10 @@ public class _001_VirtualThreads {
                 tasks.add(new Task(i));
             }
 
+            TaskLatencyRecorder latencies = new TaskLatencyRecorder();
             long time = System.currentTimeMillis();
 
-            List<Future<Integer>> futures = executor.invokeAll(tasks);
+            List<Future<Integer>> futures = latencies.submitAll(executor, tasks);
 
             long sum = 0;
             for (Future<Integer> future : futures) {
@@ -264,6 +498,7 @@ public class _001_VirtualThreads {
             time = System.currentTimeMillis() - time;
 
             System.out.println("Platform Thread finish : sum = " + sum + "; time = " + time + " ms");
+            System.out.print(latencies.report());
         } catch (ExecutionException | InterruptedException e) {
             throw new RuntimeException(e);
         }
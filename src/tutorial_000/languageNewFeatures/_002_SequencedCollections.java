@@ -71,6 +71,11 @@ public class _002_SequencedCollections {
          * - SequencedSet sequencedKeySet() : returns the keys of the map
          * - SequencedCollection<V> sequencedValues() : returns the values of the map
          * - SequencedSet<Entry<K,V>> sequencedEntrySet() : returns all entries of the map
+         *
+         * These methods make a LinkedHashMap built in access order (new LinkedHashMap<>(16, 0.75f, true)) a simple LRU
+         * cache : get() moves an entry to the end, and pollFirstEntry() evicts the least recently used one. As
+         * LinkedHashMap is not thread-safe, StripedLruCache splits such a cache into independently locked stripes, while
+         * still providing firstEntry(), pollLastEntry() or reversed() over the whole cache.
          */
 
         /*
@@ -86,5 +91,30 @@ public class _002_SequencedCollections {
          * - Collections.unmodifiableSequencedSet(SequencedSet s) : returns an unmodifiable view of the underlying
          *   SequencedSet, analogous to Collections.unmodifiableSet(…).
          */
+
+        System.out.println("-------------------------");
+        /*
+         * Primitive Sequenced Collections
+         *
+         * SequencedCollection is an interface : any collection may implement it, not only the JDK ones. ArrayList<Integer>
+         * and LinkedHashSet<Integer> box each int into an Integer, and LinkedHashSet adds a linked node per element
+         * (about 50 bytes for an int). IntList, LongList and IntLinkedSet store their elements in primitive arrays, but
+         * still honor the SequencedCollection contract (with primitive getFirstInt(), addFirstInt(int)... counterparts
+         * for hot paths) :
+         */
+        IntLinkedSet ids = IntLinkedSet.of(10, 20, 30);
+        ids.addFirstInt(30);
+        System.out.println("IntLinkedSet after addFirst(30): " + ids + "; first = " + ids.getFirstInt() + "; last = " + ids.getLastInt());
+        System.out.println("IntLinkedSet reversed: " + ids.reversed());
+        IntList intList = IntList.of(1, 2, 3);
+        intList.addFirstInt(0);
+        System.out.println("IntList after addFirst(0): " + intList + "; removeLast = " + intList.removeLastInt() + "; reversed = " + intList.reversed());
+
+        /*
+         * The elements of a SequencedCollection do not even have to live on the heap. OffHeapRecordDeque is a
+         * SequencedCollection<MemorySegment> of fixed-width records stored in native memory (or in a memory-mapped file,
+         * surviving restarts), which the GC never scans. As it relies on java.lang.foreign, still a preview API in java 21,
+         * it needs the --enable-preview VM option.
+         */
     }
 }
@@ -1,5 +1,9 @@
 package tutorial_000.languageNewFeatures;
 
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
 public class _003_RecordPatterns {
     public static void main (String[] args) {
         /*
@@ -29,6 +33,14 @@ public class _003_RecordPatterns {
         printForSwitch(new Position(33,2));
         printForSwitch(new Situation(20, 22));
         printForSwitch("My String.");
+        /*
+         * Such a switch classifies one object per call. To classify millions of mixed objects, ParallelClassifier splits
+         * them between the threads of a ForkJoinPool, each one feeding its own accumulator (here MixedObjectStats, whose
+         * accept() method is a switch with type, guarded and record patterns), and merges the accumulators at the end :
+         */
+        MixedObjectStats stats = ParallelClassifier.classify(MixedObjectStats.sample(1_000_000, 42), MixedObjectStats::new,
+                ForkJoinPool.commonPool());
+        System.out.println("ParallelClassifier : " + stats);
 
         System.out.println("------------------------------");
 
@@ -45,6 +57,16 @@ public class _003_RecordPatterns {
         printWithoutRecordPattern(path);
         printWithRecordPattern(path);
         printNestedRecordPattern(path);
+        /*
+         * Records are small immutable objects : a million paths means three million objects (Path, Position, Situation)
+         * scattered on the heap. PathColumns stores them column-wise in primitive arrays for fast bulk operations, but
+         * its add() and get() still deconstruct and build Path records, so it works with record patterns too :
+         */
+        PathColumns paths = new PathColumns();
+        paths.add(path);
+        paths.add(new Path(new Position(-3, 0), new Situation(4, 4)));
+        printNestedRecordPattern(paths.get(1));
+        System.out.println("PathColumns : bounding box = " + paths.boundingBox() + "; total length = " + paths.totalLength());
 
         System.out.println("------------------------------");
 
@@ -59,13 +81,27 @@ public class _003_RecordPatterns {
          * Now, thanks to record patterns we may test if GPS Record use Position2D or Position3D easily with a single line :
          */
         printInterfaceImplementation(gps);
-
+        /*
+         * Pattern matching handles one GPS at a time. For millions of GPS, BatchGeometry stores their coordinates in
+         * primitive columns (the record pattern GPS(Position2D(int x1, int y1), Position2D(int x2, int y2)) extracts
+         * them), and computes distances or displacements in bulk. It uses the incubating Vector API (SIMD) when the JVM
+         * is started with "--add-modules jdk.incubator.vector", and plain loops otherwise :
+         */
+        BatchGeometry.Pairs2D pairs = BatchGeometry.Pairs2D.of(List.of(new GPS<>(new Position2D(4,5), new Position2D(3,1)),
+                new GPS<>(new Position2D(0,0), new Position2D(3,4))));
+        System.out.println("BatchGeometry : total distance = " + BatchGeometry.totalDistance(pairs) + " (vector API available : " + BatchGeometry.vectorAvailable() + ")");
+        /*
+         * As Location is sealed, the set of its records is known : SealedRecordCodec derives a compact binary layout (a tag
+         * and the record components, 13 bytes per location) from its permits list, to store or send locations into
+         * ByteBuffers, MemorySegments or files without java serialization. As it relies on java.lang.foreign, still a
+         * preview API in java 21, it needs the --enable-preview VM option.
+         */
 
     }
 
-    private record Position(int x, int y) {}
-    private record Situation(int x, int y) {}
-    private record Path(Position from, Situation to) {}
+    record Position(int x, int y) {}
+    record Situation(int x, int y) {}
+    record Path(Position from, Situation to) {}
 
     private static void printForInstanceOf(Object o) {
         // Use Pattern Matching for instanceof.
@@ -110,10 +146,11 @@ public class _003_RecordPatterns {
         }
     }
 
-    private sealed interface Location permits Position2D, Position3D {}
-    private record Position2D(int x, int y) implements Location {}
-    private record Position3D(int x, int y, int z) implements Location {}
-    private record GPS<P extends Location>(P from, P to) {}
+    // Serializable, as locations are sent between services (see SealedRecordCodec).
+    sealed interface Location extends Serializable permits Position2D, Position3D {}
+    record Position2D(int x, int y) implements Location {}
+    record Position3D(int x, int y, int z) implements Location {}
+    record GPS<P extends Location>(P from, P to) {}
 
     private static void printInterfaceImplementation(Object o) {
         switch (o) {
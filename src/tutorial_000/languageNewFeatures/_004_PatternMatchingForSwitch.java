@@ -12,6 +12,19 @@ public class _004_PatternMatchingForSwitch {
         printPatternMachting("str");
         printPatternMachting("My Long String.");
         printPatternMachting(100L);
+        /*
+         * On a hot path (an event router dispatching every message...), such a switch tests its labels one after the other
+         * for each call. TypeDispatcher declares the same cases once, caches per receiver class which cases may match it,
+         * and may try the most frequently matched guards first (see its documentation) :
+         */
+        TypeDispatcher<String> dispatcher = TypeDispatcher.<String>builder()
+                .when(String.class, s -> s.length() > 5, s -> "Long String : " + s.toUpperCase())
+                .on(String.class, s -> "Short String : " + s.toLowerCase())
+                .on(Integer.class, i -> "Integer : " + i * i)
+                .on(Position.class, p -> "Position : " + p.x() + "/" + p.y())
+                .otherwise(o -> "Something else.");
+        System.out.println("TypeDispatcher : " + dispatcher.dispatch("My Long String."));
+        System.out.println("TypeDispatcher : " + dispatcher.dispatch(new Position(5, 3)));
         /*
          * In addition of getting shorter code, with Pattern Matching for Switch the compiler performs an “analysis of
          * exhaustiveness”. That means the switch statement or expression must cover all possible cases or contain a default
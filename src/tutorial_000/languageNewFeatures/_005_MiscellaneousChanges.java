@@ -10,6 +10,12 @@ public class _005_MiscellaneousChanges {
      * - String.splitWithDelimiters(String regex, int limit) : splits the string at substrings matched by the regular expression
      *   and returns an array of all parts and splitting strings. The string is split at most limit-1 times, i.e., the last
      *   element of the array could be further divisible.
+     *
+     * split and splitWithDelimiters allocate an array and a String per part. For hot paths splitting millions of lines,
+     * Tokenizer uses the bounded indexOf methods to return each part as offsets into the line instead, with the same
+     * semantics as split (or splitWithDelimiters, in its withDelimiters mode) for a literal delimiter, and no allocation.
+     * MappedLineScanner applies the same begin/end bounded search contract to multi-GB files mapped in memory, without
+     * decoding them into Strings.
      */
 
     /*
@@ -19,6 +25,9 @@ public class _005_MiscellaneousChanges {
      * - repeat(CharSequence cs, int count) : appends to the StringBuilder or StringBuffer the string cs – count times.
      * - repeat(int codePoint, int count) : appends the specified Unicode code point to the StringBuilder or
      *   StringBuffer – count times. A variable or constant of type char can also be passed as code point.
+     *
+     * AsyncOutputSink pads its lines with repeat(' ', n) instead of a printf format : threads build their lines into
+     * their own StringBuilder, and a single writer thread writes them in batches.
      */
 
     /*
@@ -33,6 +42,10 @@ public class _005_MiscellaneousChanges {
      * - isExtendedPictographic(int codePoint)
      *
      * These methods check whether the passed Unicode code point stands for an emoji or a variant of it.
+     *
+     * To classify every code point of large volumes of text (chat messages...), EmojiClassifier precomputes the answers of
+     * these methods into a table, and counts or finds the matching code points of Strings or UTF-8 bytes in one pass,
+     * without decoding the bytes into a String.
      */
 
     /*
@@ -51,5 +64,8 @@ public class _005_MiscellaneousChanges {
      *
      * These methods check whether value is in the range min to max. If value is less than min, they return min; if value
      * is greater than max, they return max.
+     *
+     * To clamp whole arrays, BulkClamp gives the same results as a Math.clamp loop, but uses the incubating Vector API
+     * when available (much faster for int and long arrays), and the common ForkJoinPool for very large arrays.
      */
 }